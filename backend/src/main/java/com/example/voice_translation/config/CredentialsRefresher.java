@@ -0,0 +1,61 @@
+package com.example.voice_translation.config;
+
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the shared access token fresh in the background, well before it expires,
+ * so no request ever waits on the token endpoint. Every gRPC client and the REST
+ * calls use the same credentials object, so one refresh covers all of them.
+ */
+@Component
+public class CredentialsRefresher {
+
+    private final GoogleCredentials credentials;
+    private final long refreshAheadMs;
+    private final ScheduledExecutorService scheduler;
+
+    public CredentialsRefresher(GoogleCredentials credentials,
+                                @Value("${credentials.refresh-ahead-seconds:600}") long refreshAheadSeconds,
+                                @Value("${credentials.check-interval-seconds:60}") long checkIntervalSeconds) {
+        this.credentials = credentials;
+        this.refreshAheadMs = TimeUnit.SECONDS.toMillis(refreshAheadSeconds);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "credentials-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshIfDue, checkIntervalSeconds, checkIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /** Fetches a new token now. Used during warm-up so the first request finds one in place. */
+    public void refresh() throws IOException {
+        credentials.refresh();
+    }
+
+    void refreshIfDue() {
+        AccessToken token = credentials.getAccessToken();
+        Date expiry = token != null ? token.getExpirationTime() : null;
+        if (expiry != null && expiry.getTime() - System.currentTimeMillis() > refreshAheadMs) return;
+        try {
+            credentials.refresh();
+        } catch (IOException e) {
+            // The current token may still be valid; try again on the next check
+            System.err.println("Background credentials refresh failed: " + e.getMessage());
+        }
+    }
+}
@@ -1,66 +1,127 @@
 package com.example.voice_translation.config;
 
+import com.example.voice_translation.service.SttRegion;
+import com.example.voice_translation.service.SttRegionSelector;
 import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.api.gax.core.NoCredentialsProvider;
 import com.google.auth.oauth2.GoogleCredentials;
+import com.google.auth.oauth2.ServiceAccountCredentials;
 import com.google.cloud.speech.v2.SpeechClient;
 import com.google.cloud.speech.v2.SpeechSettings;
 import com.google.cloud.texttospeech.v1.TextToSpeechClient;
 import com.google.cloud.texttospeech.v1.TextToSpeechSettings;
 import com.google.cloud.translate.Translate;
 import com.google.cloud.translate.TranslateOptions;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 public class GoogleCloudConfig {
 
+    private static final String PLAINTEXT_PREFIX = "plaintext://";
+
     @Value("${GOOGLE_APPLICATION_CREDENTIALS:}")
     private String credentialsPath;
 
+    @Value("${stt.regions:asia-south1}")
+    private String sttRegions;
+
+    @Value("${stt.explore-ratio:0.05}")
+    private double sttExploreRatio;
+
+    @Value("${stt.probe-interval-seconds:0}")
+    private long sttProbeIntervalSeconds;
+
+    @Value("${grpc.speech.pool-size:4}")
+    private int speechPoolSize;
+
+    @Value("${grpc.tts.pool-size:2}")
+    private int ttsPoolSize;
+
+    /** The one credentials object shared by every client, kept fresh by {@link CredentialsRefresher}. */
     @Bean
     public GoogleCredentials googleCredentials() throws IOException {
         if (credentialsPath != null && !credentialsPath.isEmpty()) {
-            return GoogleCredentials.fromStream(new FileInputStream(credentialsPath))
-                    .createScoped("https://www.googleapis.com/auth/cloud-platform");
+            try (FileInputStream in = new FileInputStream(credentialsPath)) {
+                return GoogleCredentials.fromStream(in)
+                        .createScoped("https://www.googleapis.com/auth/cloud-platform");
+            }
         }
         return GoogleCredentials.getApplicationDefault()
                 .createScoped("https://www.googleapis.com/auth/cloud-platform");
     }
 
+    /**
+     * The project billed for Speech-to-Text: {@code stt.project-id} when set, otherwise the
+     * project of the service-account credentials, the same one the TTS REST calls use.
+     */
+    public static String projectId(String configured, GoogleCredentials credentials) {
+        if (configured != null && !configured.isBlank()) return configured;
+        if (credentials instanceof ServiceAccountCredentials serviceAccount && serviceAccount.getProjectId() != null) {
+            return serviceAccount.getProjectId();
+        }
+        throw new IllegalStateException("Set stt.project-id (GOOGLE_CLOUD_PROJECT); the credentials name no project");
+    }
+
+    /**
+     * Builds one client pool per configured STT region. Entries are a location, optionally
+     * followed by "@host:port" or "@plaintext://host:port" to override the endpoint.
+     */
     @Bean
-    public SpeechClient speechClient(GoogleCredentials credentials) throws IOException {
-        SpeechSettings settings = SpeechSettings.newBuilder()
-                .setCredentialsProvider(FixedCredentialsProvider.create(credentials))
-                .setEndpoint("asia-south1-speech.googleapis.com:443")
-                .build();
-        return SpeechClient.create(settings);
+    public SttRegionSelector sttRegionSelector(GoogleCredentials credentials, GrpcChannelSettings channelSettings,
+                                               MeterRegistry meterRegistry) throws IOException {
+        List<SttRegion> regions = new ArrayList<>();
+        for (String entry : sttRegions.split(",")) {
+            String spec = entry.trim();
+            if (spec.isEmpty()) continue;
+            int at = spec.indexOf('@');
+            String location = at > 0 ? spec.substring(0, at) : spec;
+            String endpoint = at > 0 ? spec.substring(at + 1) : location + "-speech.googleapis.com:443";
+            boolean plaintext = endpoint.startsWith(PLAINTEXT_PREFIX);
+            String target = plaintext ? endpoint.substring(PLAINTEXT_PREFIX.length()) : endpoint;
+
+            GrpcClientPool<SpeechClient> pool = new GrpcClientPool<>("speech-" + location, speechPoolSize, i -> {
+                SpeechSettings settings = SpeechSettings.newBuilder()
+                        .setCredentialsProvider(plaintext
+                                ? NoCredentialsProvider.create()
+                                : FixedCredentialsProvider.create(credentials))
+                        .setEndpoint(target)
+                        .setTransportChannelProvider(channelSettings.apply(SpeechSettings.defaultGrpcTransportProviderBuilder(), plaintext))
+                        .build();
+                return SpeechClient.create(settings);
+            }, meterRegistry);
+            regions.add(new SttRegion(location, endpoint, pool));
+        }
+
+        SttRegionSelector selector = new SttRegionSelector(regions, sttExploreRatio);
+        selector.startProbes(sttProbeIntervalSeconds);
+        return selector;
     }
 
     @Bean
-    public TextToSpeechClient textToSpeechClient() throws IOException {
-        if (credentialsPath != null && !credentialsPath.isEmpty()) {
-            GoogleCredentials credentials = GoogleCredentials.fromStream(new FileInputStream(credentialsPath));
+    public GrpcClientPool<TextToSpeechClient> textToSpeechClientPool(GoogleCredentials credentials, GrpcChannelSettings channelSettings,
+                                                                     MeterRegistry meterRegistry) throws IOException {
+        return new GrpcClientPool<>("tts", ttsPoolSize, i -> {
             TextToSpeechSettings settings = TextToSpeechSettings.newBuilder()
                     .setCredentialsProvider(FixedCredentialsProvider.create(credentials))
+                    .setTransportChannelProvider(channelSettings.apply(TextToSpeechSettings.defaultGrpcTransportProviderBuilder()))
                     .build();
             return TextToSpeechClient.create(settings);
-        }
-        return TextToSpeechClient.create();
+        }, meterRegistry);
     }
 
     @Bean
-    public Translate translateService() throws IOException {
-        if (credentialsPath != null && !credentialsPath.isEmpty()) {
-            GoogleCredentials credentials = GoogleCredentials.fromStream(new FileInputStream(credentialsPath));
-            return TranslateOptions.newBuilder()
-                    .setCredentials(credentials)
-                    .build()
-                    .getService();
-        }
-        return TranslateOptions.getDefaultInstance().getService();
+    public Translate translateService(GoogleCredentials credentials) {
+        return TranslateOptions.newBuilder()
+                .setCredentials(credentials)
+                .build()
+                .getService();
     }
 }
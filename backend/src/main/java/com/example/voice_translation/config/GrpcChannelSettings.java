@@ -0,0 +1,57 @@
+package com.example.voice_translation.config;
+
+import com.google.api.gax.grpc.ChannelPoolSettings;
+import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/** Transport tuning shared by every pooled gRPC channel. */
+@Component
+public class GrpcChannelSettings {
+
+    @Value("${grpc.keepalive-time-seconds:30}")
+    private long keepAliveTimeSeconds;
+
+    @Value("${grpc.keepalive-timeout-seconds:10}")
+    private long keepAliveTimeoutSeconds;
+
+    @Value("${grpc.keepalive-without-calls:true}")
+    private boolean keepAliveWithoutCalls;
+
+    @Value("${grpc.flow-control-window-bytes:4194304}")
+    private int flowControlWindowBytes;
+
+    @Value("${grpc.max-inbound-message-bytes:33554432}")
+    private int maxInboundMessageBytes;
+
+    /** Applies the settings to a provider builder. Each provider gets exactly one channel; pooling is done by {@link GrpcClientPool}. */
+    public InstantiatingGrpcChannelProvider apply(InstantiatingGrpcChannelProvider.Builder builder) {
+        return apply(builder, false);
+    }
+
+    /** As {@link #apply(InstantiatingGrpcChannelProvider.Builder)}, optionally without TLS (for local stub endpoints). */
+    public InstantiatingGrpcChannelProvider apply(InstantiatingGrpcChannelProvider.Builder builder, boolean plaintext) {
+        return builder
+                .setChannelPoolSettings(ChannelPoolSettings.staticallySized(1))
+                .setKeepAliveTimeDuration(Duration.ofSeconds(keepAliveTimeSeconds))
+                .setKeepAliveTimeoutDuration(Duration.ofSeconds(keepAliveTimeoutSeconds))
+                .setKeepAliveWithoutCalls(keepAliveWithoutCalls)
+                .setMaxInboundMessageSize(maxInboundMessageBytes)
+                .setChannelConfigurator(channelBuilder -> configureChannel(channelBuilder, plaintext))
+                .build();
+    }
+
+    private ManagedChannelBuilder configureChannel(ManagedChannelBuilder channelBuilder, boolean plaintext) {
+        if (channelBuilder instanceof NettyChannelBuilder netty) {
+            netty.flowControlWindow(flowControlWindowBytes);
+        }
+        if (plaintext) {
+            channelBuilder.usePlaintext();
+        }
+        return channelBuilder;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.voice_translation.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed set of Google API clients, each with its own gRPC channel, so concurrent
+ * streams are spread over several HTTP/2 connections instead of queuing on one.
+ * Each call leases the client with the fewest active calls and returns it when done.
+ */
+public class GrpcClientPool<C extends AutoCloseable> implements AutoCloseable {
+
+    public interface ClientFactory<C> {
+        C create(int index) throws IOException;
+    }
+
+    private final List<C> clients = new ArrayList<>();
+    private final AtomicInteger[] active;
+    private final AtomicInteger nextStart = new AtomicInteger();
+
+    public GrpcClientPool(String name, int size, ClientFactory<C> factory, MeterRegistry meterRegistry) throws IOException {
+        this.active = new AtomicInteger[Math.max(1, size)];
+        try {
+            for (int i = 0; i < active.length; i++) {
+                clients.add(factory.create(i));
+                active[i] = new AtomicInteger();
+                Gauge.builder("grpc.pool.active.calls", active[i], AtomicInteger::get)
+                        .tag("pool", name)
+                        .tag("channel", String.valueOf(i))
+                        .register(meterRegistry);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Don't leak the channels that were already opened
+            for (C client : clients) {
+                try {
+                    client.close();
+                } catch (Exception closeError) {
+                    e.addSuppressed(closeError);
+                }
+            }
+            throw e;
+        }
+        System.out.println("Created " + name + " gRPC pool with " + active.length + " channels");
+    }
+
+    /** Leases the least-loaded client. Ties are broken round-robin so idle channels are all used. */
+    public Lease acquire() {
+        int start = Math.floorMod(nextStart.getAndIncrement(), active.length);
+        int best = start;
+        for (int i = 1; i < active.length; i++) {
+            int candidate = (start + i) % active.length;
+            if (active[candidate].get() < active[best].get()) best = candidate;
+        }
+        active[best].incrementAndGet();
+        return new Lease(best);
+    }
+
+    /** All clients, e.g. for warming up every channel. */
+    public List<C> clients() {
+        return clients;
+    }
+
+    public int size() {
+        return clients.size();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (C client : clients) client.close();
+    }
+
+    /** A client checked out of the pool. Closing it releases the slot; closing twice is a no-op. */
+    public class Lease implements AutoCloseable {
+        private final int index;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(int index) {
+            this.index = index;
+        }
+
+        public C client() {
+            return clients.get(index);
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) active[index].decrementAndGet();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.voice_translation.config;
 
 import com.example.voice_translation.handler.RealtimeTranslationHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
@@ -12,13 +13,18 @@ import org.springframework.web.socket.server.support.HttpSessionHandshakeInterce
 public class WebSocketConfig implements WebSocketConfigurer {
 
     private final RealtimeTranslationHandler realtimeTranslationHandler;
+    private final String transport;
 
-    public WebSocketConfig(RealtimeTranslationHandler realtimeTranslationHandler) {
+    public WebSocketConfig(RealtimeTranslationHandler realtimeTranslationHandler,
+                           @Value("${realtime.transport:servlet}") String transport) {
         this.realtimeTranslationHandler = realtimeTranslationHandler;
+        this.transport = transport;
     }
 
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // In "reactive" mode only the Reactor Netty server (ReactiveWebSocketServer) accepts clients
+        if ("reactive".equals(transport)) return;
         registry.addHandler(realtimeTranslationHandler, "/ws/translate")
                 .setAllowedOrigins("*");
     }
@@ -0,0 +1,107 @@
+package com.example.voice_translation.controller;
+
+import com.example.voice_translation.model.BatchJob;
+import com.example.voice_translation.service.BatchJobService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+@RestController
+@RequestMapping("/api/jobs")
+@CrossOrigin(origins = "*")
+public class BatchJobController {
+
+    private static final long EVENTS_TIMEOUT_MS = 6 * 60 * 60 * 1000L;
+    /** BCP-47 shaped tags only; target codes become output file names. */
+    private static final Pattern LANGUAGE_TAG = Pattern.compile("[A-Za-z]{2,3}(-[A-Za-z0-9]{2,8})*");
+
+    private final BatchJobService batchJobService;
+
+    public BatchJobController(BatchJobService batchJobService) {
+        this.batchJobService = batchJobService;
+    }
+
+    /** Accepts the raw recording as the request body and returns the queued job. */
+    @PostMapping
+    public ResponseEntity<BatchJob> submitJob(
+            HttpServletRequest request,
+            @RequestParam("sourceLang") String sourceLang,
+            @RequestParam("targets") List<String> targets) throws IOException {
+        if (!LANGUAGE_TAG.matcher(sourceLang).matches() || targets.isEmpty()
+                || !targets.stream().allMatch(target -> LANGUAGE_TAG.matcher(target).matches())) {
+            return ResponseEntity.badRequest().build();
+        }
+        try (InputStream in = request.getInputStream()) {
+            BatchJob job = batchJobService.submit(in, sourceLang, targets);
+            return ResponseEntity.accepted().body(job);
+        } catch (BatchJobService.UploadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<BatchJob> getJob(@PathVariable String jobId) {
+        BatchJob job = batchJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    /** Server-sent events with the job's state on every progress change. */
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamProgress(@PathVariable String jobId) throws IOException {
+        BatchJob job = batchJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        SseEmitter emitter = new SseEmitter(EVENTS_TIMEOUT_MS);
+        Consumer<BatchJob> listener = update -> {
+            try {
+                emitter.send(SseEmitter.event().name("progress").data(update));
+                if (update.getFinishedAt() != null) emitter.complete();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        emitter.onCompletion(() -> batchJobService.removeListener(jobId, listener));
+        emitter.onTimeout(() -> batchJobService.removeListener(jobId, listener));
+
+        batchJobService.addListener(jobId, listener);
+        emitter.send(SseEmitter.event().name("progress").data(job));
+        if (job.getFinishedAt() != null) emitter.complete();
+        return ResponseEntity.ok(emitter);
+    }
+
+    @GetMapping("/{jobId}/result/{lang}")
+    public ResponseEntity<Resource> downloadAudio(@PathVariable String jobId, @PathVariable String lang) {
+        return file(jobId, lang + ".mp3", MediaType.parseMediaType("audio/mpeg"));
+    }
+
+    @GetMapping("/{jobId}/result/{lang}/text")
+    public ResponseEntity<Resource> downloadText(@PathVariable String jobId, @PathVariable String lang) {
+        String fileName = "source".equals(lang) ? "transcript.txt" : lang + ".txt";
+        return file(jobId, fileName, new MediaType(MediaType.TEXT_PLAIN, java.nio.charset.StandardCharsets.UTF_8));
+    }
+
+    private ResponseEntity<Resource> file(String jobId, String fileName, MediaType mediaType) {
+        Path path = batchJobService.resultFile(jobId, fileName);
+        if (path == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().contentType(mediaType).body(new FileSystemResource(path));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.voice_translation.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Writes a multipart/mixed response part by part, flushing after each part so the
+ * client can consume results while the rest are still being produced.
+ */
+class MultipartMixedWriter {
+
+    private final String boundary;
+    private final OutputStream out;
+    private final WritableByteChannel channel;
+
+    MultipartMixedWriter(OutputStream out, String boundary) {
+        this.out = out;
+        this.boundary = boundary;
+        this.channel = Channels.newChannel(out);
+    }
+
+    static String newBoundary() {
+        return "vt-" + UUID.randomUUID();
+    }
+
+    static String contentType(String boundary) {
+        return "multipart/mixed; boundary=" + boundary;
+    }
+
+    void writeJsonPart(byte[] json) throws IOException {
+        writeHeaders("application/json", null, json.length);
+        out.write(json);
+        endPart();
+    }
+
+    /**
+     * Writes audio from the buffer. Heap buffers are written from their backing array with no
+     * copy; direct and mapped buffers (cache segments) go through the channel, which copies
+     * them in small chunks rather than into one array the size of the audio.
+     */
+    void writeAudioPart(String language, ByteBuffer audio) throws IOException {
+        writeHeaders("audio/mpeg", language, audio.remaining());
+        if (audio.hasArray()) {
+            out.write(audio.array(), audio.arrayOffset() + audio.position(), audio.remaining());
+            audio.position(audio.limit());
+        } else {
+            out.flush();
+            while (audio.hasRemaining()) channel.write(audio);
+        }
+        endPart();
+    }
+
+    void close() throws IOException {
+        out.write(("--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private void writeHeaders(String contentType, String language, int length) throws IOException {
+        StringBuilder headers = new StringBuilder()
+                .append("--").append(boundary).append("\r\n")
+                .append("Content-Type: ").append(contentType).append("\r\n");
+        if (language != null) headers.append("Content-Language: ").append(language).append("\r\n");
+        headers.append("Content-Length: ").append(length).append("\r\n\r\n");
+        out.write(headers.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void endPart() throws IOException {
+        out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+}
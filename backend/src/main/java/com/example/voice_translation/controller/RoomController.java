@@ -1,7 +1,14 @@
 package com.example.voice_translation.controller;
 
+import com.example.voice_translation.dto.ArchivePage;
+import com.example.voice_translation.dto.ScriptUpload;
 import com.example.voice_translation.model.RoomConfig;
+import com.example.voice_translation.model.RoomScript;
+import com.example.voice_translation.model.ScriptTarget;
 import com.example.voice_translation.service.RoomService;
+import com.example.voice_translation.service.ScriptService;
+import com.example.voice_translation.service.TranscriptArchiveService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -11,9 +18,13 @@ import org.springframework.web.bind.annotation.*;
 public class RoomController {
 
     private final RoomService roomService;
+    private final TranscriptArchiveService archiveService;
+    private final ScriptService scriptService;
 
-    public RoomController(RoomService roomService) {
+    public RoomController(RoomService roomService, TranscriptArchiveService archiveService, ScriptService scriptService) {
         this.roomService = roomService;
+        this.archiveService = archiveService;
+        this.scriptService = scriptService;
     }
 
     @PostMapping
@@ -30,4 +41,61 @@ public class RoomController {
         }
         return ResponseEntity.ok(config);
     }
+
+    /** Deletes the room and drops its script and any renditions still in memory. */
+    @DeleteMapping("/{roomId}")
+    public ResponseEntity<Void> deleteRoom(@PathVariable String roomId) {
+        return roomService.deleteRoom(roomId) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/{roomId}/archive")
+    public ResponseEntity<ArchivePage> getArchive(
+            @PathVariable String roomId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return ResponseEntity.ok(archiveService.page(roomId, cursor, limit));
+    }
+
+    /** Uploads the room's prepared script; translation and synthesis run in the background. */
+    @PutMapping("/{roomId}/script")
+    public ResponseEntity<RoomScript> uploadScript(@PathVariable String roomId, @RequestBody ScriptUpload upload) {
+        // Targets without their own voice are rendered in the room's configured voice
+        RoomConfig room = roomService.getRoom(roomId);
+        if (room == null) room = new RoomConfig();
+        if (upload.getTargets() != null) {
+            for (ScriptTarget target : upload.getTargets()) {
+                if (target == null) continue;
+                if (target.getVoiceModel() == null) target.setVoiceModel(orDefault(room.getVoiceModel(), "Standard"));
+                if (target.getVoiceGender() == null) target.setVoiceGender(orDefault(room.getVoiceGender(), "NEUTRAL"));
+                if (target.getVoicePrompt() == null) target.setVoicePrompt(orDefault(room.getVoicePrompt(), ""));
+            }
+        }
+        try {
+            return ResponseEntity.accepted().body(scriptService.upload(roomId, upload));
+        } catch (ScriptService.ScriptTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @GetMapping("/{roomId}/script")
+    public ResponseEntity<RoomScript> getScript(@PathVariable String roomId) {
+        RoomScript script = scriptService.getScript(roomId);
+        if (script == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(script);
+    }
+
+    @DeleteMapping("/{roomId}/script")
+    public ResponseEntity<Void> deleteScript(@PathVariable String roomId) {
+        return scriptService.remove(roomId) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
 }
@@ -0,0 +1,199 @@
+package com.example.voice_translation.controller;
+
+import com.example.voice_translation.service.SpeechToTextService;
+import com.example.voice_translation.service.SttStream;
+import com.example.voice_translation.service.TextToSpeechService;
+import com.example.voice_translation.service.TranslationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Batch translation for kiosk clients: one streamed audio upload, many target languages.
+ * The upload is forwarded to streaming recognition chunk by chunk as it arrives, off the
+ * servlet thread. Every target is then translated and synthesized in parallel, and each
+ * one is written to a multipart/mixed response as soon as it is ready, with the audio as
+ * raw bytes. If recognition fails, the response carries an error part instead.
+ */
+@RestController
+@RequestMapping("/api/translate/stream")
+@CrossOrigin(origins = "*")
+public class StreamingTranslationController {
+
+    private final SpeechToTextService speechToTextService;
+    private final TranslationService translationService;
+    private final TextToSpeechService textToSpeechService;
+    private static final int UPLOAD_CHUNK_BYTES = 16 * 1024;
+    private static final long RECOGNITION_TIMEOUT_SECONDS = 90;
+
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+
+    public StreamingTranslationController(SpeechToTextService stt, TranslationService tl, TextToSpeechService tts,
+                                          ObjectMapper objectMapper,
+                                          @Value("${translate.stream.parallelism:8}") int parallelism) {
+        this.speechToTextService = stt;
+        this.translationService = tl;
+        this.textToSpeechService = tts;
+        this.objectMapper = objectMapper;
+        this.executor = Executors.newFixedThreadPool(parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** A finished (or failed) target language. */
+    private record TargetResult(String language, String translatedText, ByteBuffer audio, String error) {}
+
+    @PostMapping
+    public ResponseEntity<StreamingResponseBody> processAudioStream(
+            HttpServletRequest request,
+            @RequestParam("sourceLang") String sourceLang,
+            @RequestParam("targets") List<String> targets,
+            @RequestParam(value = "voice", defaultValue = "Standard") String voiceModel,
+            @RequestParam(value = "gender", defaultValue = "NEUTRAL") String gender,
+            @RequestParam(value = "prompt", defaultValue = "") String prompt) {
+
+        String boundary = MultipartMixedWriter.newBoundary();
+        StreamingResponseBody body = out -> {
+            MultipartMixedWriter writer = new MultipartMixedWriter(out, boundary);
+            String originalText;
+            try {
+                originalText = recognize(request, sourceLang);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Streaming recognition failed: " + e.getMessage());
+                writer.writeJsonPart(json("error", null, null, "Speech recognition failed: " + e.getMessage()));
+                writer.close();
+                return;
+            }
+
+            CompletionService<TargetResult> completion = new ExecutorCompletionService<>(executor);
+            int pending = 0;
+            if (!originalText.isEmpty()) {
+                for (String target : targets) {
+                    completion.submit(() -> translateTarget(originalText, sourceLang, target, voiceModel, gender, prompt));
+                    pending++;
+                }
+            }
+            writeResults(writer, originalText, completion, pending);
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, MultipartMixedWriter.contentType(boundary))
+                .body(body);
+    }
+
+    /** Streams the request body to streaming recognition as it is read and returns the joined finals. */
+    private String recognize(HttpServletRequest request, String sourceLang) throws IOException {
+        StringBuilder text = new StringBuilder();
+        CompletableFuture<String> done = new CompletableFuture<>();
+        SttStream stream = speechToTextService.startStreaming(sourceLang, new SpeechToTextService.StreamCallbacks() {
+            @Override
+            public void onTranscript(String transcript) {
+                synchronized (text) {
+                    if (text.length() > 0) text.append(' ');
+                    text.append(transcript.trim());
+                }
+            }
+
+            @Override
+            public void onComplete() {
+                synchronized (text) {
+                    done.complete(text.toString());
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                done.completeExceptionally(t);
+            }
+        });
+
+        try (InputStream in = request.getInputStream()) {
+            byte[] chunk = new byte[UPLOAD_CHUNK_BYTES];
+            int read;
+            while (!done.isDone() && (read = in.readNBytes(chunk, 0, chunk.length)) > 0) {
+                speechToTextService.sendAudio(stream, chunk, read);
+            }
+        } finally {
+            try { stream.closeSend(); } catch (Exception ignored) {}
+        }
+
+        try {
+            return done.get(RECOGNITION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for recognition", e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new IOException("Recognition timed out", e);
+        }
+    }
+
+    /** Emits the transcript, then each target in completion order. */
+    private void writeResults(MultipartMixedWriter writer, String originalText,
+                              CompletionService<TargetResult> completion, int pending) throws IOException {
+        writer.writeJsonPart(json("transcript", null, originalText, null));
+        try {
+            for (int i = 0; i < pending; i++) {
+                TargetResult result = completion.take().get();
+                if (result.error() != null) {
+                    writer.writeJsonPart(json("error", result.language(), null, result.error()));
+                    continue;
+                }
+                writer.writeJsonPart(json("translation", result.language(), result.translatedText(), null));
+                if (result.audio() != null) writer.writeAudioPart(result.language(), result.audio());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for translations", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Translation task failed", e.getCause());
+        }
+        writer.close();
+    }
+
+    private TargetResult translateTarget(String originalText, String sourceLang, String target,
+                                         String voiceModel, String gender, String prompt) {
+        try {
+            String translated = translationService.translateText(originalText, sourceLang, target);
+            ByteBuffer audio = textToSpeechService.synthesize(translated, target, voiceModel, gender, prompt);
+            return new TargetResult(target, translated, audio, null);
+        } catch (Exception e) {
+            System.err.println("Streaming translation error for " + target + ": " + e.getMessage());
+            return new TargetResult(target, null, null, e.getMessage());
+        }
+    }
+
+    private byte[] json(String type, String language, String text, String error) throws IOException {
+        Map<String, String> part = new LinkedHashMap<>();
+        part.put("type", type);
+        if (language != null) part.put("language", language);
+        if (text != null) part.put("text", text);
+        if (error != null) part.put("error", error);
+        return objectMapper.writeValueAsBytes(part);
+    }
+}
@@ -43,7 +43,7 @@ public class TranslationController {
             }
 
             // 2. Translate Text
-            String translatedText = translationService.translateText(originalText, targetLang);
+            String translatedText = translationService.translateText(originalText, sourceLang, targetLang);
 
             // 3. Convert Text to Speech
             byte[] audioContent = textToSpeechService.convertTextToSpeech(translatedText, targetLang);
@@ -0,0 +1,31 @@
+package com.example.voice_translation.dto;
+
+import com.example.voice_translation.model.TranscriptArchiveEntity;
+
+import java.util.List;
+
+public class ArchivePage {
+    private List<TranscriptArchiveEntity> items;
+    private String nextCursor;
+
+    public ArchivePage(List<TranscriptArchiveEntity> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<TranscriptArchiveEntity> getItems() {
+        return items;
+    }
+
+    public void setItems(List<TranscriptArchiveEntity> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.voice_translation.dto;
+
+import com.example.voice_translation.model.ScriptTarget;
+
+import java.util.List;
+
+public class ScriptUpload {
+    private String sourceLang = "en-US";
+    private String text;
+    private List<ScriptTarget> targets;
+
+    public String getSourceLang() {
+        return sourceLang;
+    }
+
+    public void setSourceLang(String sourceLang) {
+        this.sourceLang = sourceLang;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public List<ScriptTarget> getTargets() {
+        return targets;
+    }
+
+    public void setTargets(List<ScriptTarget> targets) {
+        this.targets = targets;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.voice_translation.handler;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One realtime client connection, independent of the WebSocket stack it arrived on.
+ * Sends may be called from any thread.
+ */
+interface Connection {
+
+    /** "Try again later" close code, used when the node is overloaded. */
+    int CLOSE_SERVICE_OVERLOAD = 1013;
+
+    String id();
+
+    boolean isOpen();
+
+    /** Accepted Sec-WebSocket-Protocol, or null if none was negotiated. */
+    String subProtocol();
+
+    /** Raw query string of the handshake URI, or null. */
+    String query();
+
+    void sendText(String text);
+
+    /** Sends the parts as one binary message. The buffers must not be modified afterwards. */
+    void sendBinary(ByteBuffer... parts);
+
+    void close(int code, String reason);
+}
@@ -0,0 +1,78 @@
+package com.example.voice_translation.handler;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+/**
+ * Encodes the 12-byte big-endian header of the framed WebSocket protocol:
+ *
+ * <pre>
+ *  0      version      (1)
+ *  1      frame type   (TYPE_*)
+ *  2      flags        (FLAG_*)
+ *  3      codec        (CODEC_*)
+ *  4..7   utterance sequence ID, shared by the transcript, translation and audio of one utterance
+ *  8..11  chunk index within the utterance's audio
+ * </pre>
+ *
+ * The payload follows the header in the same WebSocket message.
+ */
+final class FrameCodec {
+
+    static final int HEADER_BYTES = 12;
+    static final byte VERSION = 1;
+
+    static final byte TYPE_TRANSCRIPT = 1;
+    static final byte TYPE_TRANSLATION = 2;
+    static final byte TYPE_AUDIO = 3;
+    static final byte TYPE_STREAM_COMPLETE = 4;
+
+    static final byte FLAG_LAST_CHUNK = 0x01;
+    static final byte FLAG_DEFLATE = 0x02;
+
+    static final byte CODEC_UTF8 = 0;
+    static final byte CODEC_MP3 = 1;
+    static final byte CODEC_PCM16_24K = 2;
+
+    private static final int DEFLATE_MIN_BYTES = 256;
+
+    private FrameCodec() {}
+
+    static ByteBuffer header(byte type, byte flags, byte codec, int sequence, int chunkIndex) {
+        return ByteBuffer.allocate(HEADER_BYTES)
+                .put(VERSION).put(type).put(flags).put(codec)
+                .putInt(sequence).putInt(chunkIndex)
+                .flip();
+    }
+
+    /** Encodes a complete text frame, deflating the payload when allowed and worthwhile. */
+    static ByteBuffer textFrame(byte type, int sequence, String text, boolean deflate) {
+        byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+        byte flags = FLAG_LAST_CHUNK;
+        if (deflate && payload.length >= DEFLATE_MIN_BYTES) {
+            payload = deflate(payload);
+            flags |= FLAG_DEFLATE;
+        }
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        frame.put(header(type, flags, CODEC_UTF8, sequence, 0)).put(payload);
+        return frame.flip();
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.voice_translation.handler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+
+/**
+ * How long a short STT final may be held for the next one, learned from what a
+ * fan-out actually costs. Each segment sent on pays one translation and synthesis
+ * round trip per listener language. Waiting a fraction of that round trip for the
+ * next fragment saves a whole round trip whenever the fragment arrives in time.
+ * The budget therefore tracks an EWMA of observed delivery latency.
+ */
+@Component
+public class MergeBudget {
+
+    private static final double ALPHA = 0.1;
+
+    private final boolean enabled;
+    private final double ratio;
+    private final long minBudgetMs;
+    private final long maxBudgetMs;
+    private final int minChars;
+    private final int maxChars;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService flushExecutor;
+    private final Counter finalsReceived;
+    private final Counter segmentsEmitted;
+    private volatile double deliveryLatencyMs;
+
+    public MergeBudget(MeterRegistry meterRegistry,
+                       @Value("${transcript.merge.enabled:true}") boolean enabled,
+                       @Value("${transcript.merge.budget-ratio:0.5}") double ratio,
+                       @Value("${transcript.merge.min-budget-ms:150}") long minBudgetMs,
+                       @Value("${transcript.merge.max-budget-ms:1200}") long maxBudgetMs,
+                       @Value("${transcript.merge.initial-latency-ms:800}") double initialLatencyMs,
+                       @Value("${transcript.merge.min-chars:20}") int minChars,
+                       @Value("${transcript.merge.max-chars:200}") int maxChars) {
+        this.enabled = enabled;
+        this.ratio = ratio;
+        this.minBudgetMs = minBudgetMs;
+        this.maxBudgetMs = maxBudgetMs;
+        this.deliveryLatencyMs = initialLatencyMs;
+        this.minChars = minChars;
+        this.maxChars = maxChars;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "transcript-merge");
+            t.setDaemon(true);
+            return t;
+        });
+        // Deadline flushes run the room fan-out, which blocks on sends; at most one per speaker stream at a time
+        this.flushExecutor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "transcript-flush");
+            t.setDaemon(true);
+            return t;
+        });
+        this.finalsReceived = Counter.builder("transcript.finals.received")
+                .description("Final transcripts received from STT").register(meterRegistry);
+        this.segmentsEmitted = Counter.builder("transcript.segments.emitted")
+                .description("Merged segments sent on to translation and synthesis").register(meterRegistry);
+        Gauge.builder("transcript.merge.budget.ms", this, MergeBudget::budgetMs).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        flushExecutor.shutdownNow();
+    }
+
+    /** A merger for one STT stream, handing complete segments to the sink. */
+    TranscriptMerger newMerger(Consumer<String> sink) {
+        Consumer<String> counted = segment -> {
+            segmentsEmitted.increment();
+            sink.accept(segment);
+        };
+        return new TranscriptMerger(this, scheduler, flushExecutor, enabled, minChars, maxChars, counted);
+    }
+
+    long budgetMs() {
+        return Math.max(minBudgetMs, Math.min(maxBudgetMs, Math.round(ratio * deliveryLatencyMs)));
+    }
+
+    /** Time from a segment reaching a listener task to its audio (or text, when shedding load) being sent. */
+    synchronized void recordDelivery(double latencyMs) {
+        deliveryLatencyMs = deliveryLatencyMs + ALPHA * (latencyMs - deliveryLatencyMs);
+    }
+
+    void finalReceived() {
+        finalsReceived.increment();
+    }
+}
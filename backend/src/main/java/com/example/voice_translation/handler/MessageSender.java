@@ -0,0 +1,56 @@
+package com.example.voice_translation.handler;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Writes pipeline output to a connection in whichever wire protocol it negotiated:
+ * legacy string prefixes, or binary frames correlated by utterance sequence ID.
+ */
+class MessageSender {
+
+    void transcript(Connection connection, SessionState state, int sequence, String transcript) {
+        if (state.protocol.isFramed()) {
+            sendFramedText(connection, state, FrameCodec.TYPE_TRANSCRIPT, sequence, transcript);
+        } else {
+            connection.sendText("TRANSCRIPT:" + transcript);
+        }
+    }
+
+    void translation(Connection connection, SessionState state, int sequence, String translated) {
+        if (state.protocol.isFramed()) {
+            sendFramedText(connection, state, FrameCodec.TYPE_TRANSLATION, sequence, translated);
+        } else {
+            connection.sendText("TRANSLATION:" + translated);
+        }
+    }
+
+    void audio(Connection connection, SessionState state, int sequence, ByteBuffer audio) {
+        if (!state.protocol.isFramed()) {
+            connection.sendBinary(audio);
+            return;
+        }
+        // Header and payload go out as two parts of one message, so the audio is never copied
+        ByteBuffer header = FrameCodec.header(FrameCodec.TYPE_AUDIO, FrameCodec.FLAG_LAST_CHUNK, FrameCodec.CODEC_MP3, sequence, 0);
+        connection.sendBinary(header, audio);
+    }
+
+    /** One chunk of streamed PCM audio. Only used for framed sessions, which can tell chunks and codecs apart. */
+    void audioChunk(Connection connection, int sequence, int chunkIndex, ByteBuffer chunk, boolean last) {
+        byte flags = last ? FrameCodec.FLAG_LAST_CHUNK : 0;
+        ByteBuffer header = FrameCodec.header(FrameCodec.TYPE_AUDIO, flags, FrameCodec.CODEC_PCM16_24K, sequence, chunkIndex);
+        connection.sendBinary(header, chunk);
+    }
+
+    void streamComplete(Connection connection, SessionState state) {
+        if (state.protocol.isFramed()) {
+            connection.sendBinary(FrameCodec.header(FrameCodec.TYPE_STREAM_COMPLETE, FrameCodec.FLAG_LAST_CHUNK, FrameCodec.CODEC_UTF8, 0, 0));
+        } else {
+            connection.sendText("STREAM_COMPLETE");
+        }
+    }
+
+    private void sendFramedText(Connection connection, SessionState state, byte type, int sequence, String text) {
+        boolean deflate = state.protocol == WireProtocol.FRAMED_DEFLATE;
+        connection.sendBinary(FrameCodec.textFrame(type, sequence, text, deflate));
+    }
+}
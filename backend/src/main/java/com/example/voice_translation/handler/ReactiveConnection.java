@@ -0,0 +1,137 @@
+package com.example.voice_translation.handler;
+
+import com.example.voice_translation.service.AdmissionControlService;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.netty.http.websocket.WebsocketOutbound;
+import reactor.util.concurrent.Queues;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A connection on the Reactor Netty transport. Sends never block: frames are queued
+ * on a per-connection sink that Netty drains as the socket becomes writable. A client
+ * that falls more than {@code maxQueuedBytes} behind is closed rather than buffered.
+ * Closing drops the backlog and hands the close frame to Reactor Netty, so the frame
+ * is not stuck behind queued audio and the peer's close reply is handled by Netty.
+ *
+ * Frames wrap heap or mapped buffers via {@link Unpooled}, so queued frames that are
+ * never written need no explicit release.
+ */
+class ReactiveConnection implements Connection {
+
+    private final String id;
+    private final String query;
+    private final String subProtocol;
+    private final WebsocketOutbound out;
+    private final AdmissionControlService admission;
+    private final long maxQueuedBytes;
+    private final Sinks.Many<WebSocketFrame> frames = Sinks.many().unicast()
+            .onBackpressureBuffer(Queues.<WebSocketFrame>unbounded(16).get());
+    private final Sinks.One<Boolean> closed = Sinks.one();
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private volatile boolean open = true;
+
+    ReactiveConnection(String id, String query, WebsocketOutbound out, AdmissionControlService admission,
+                       long maxQueuedBytes) {
+        this.id = id;
+        this.query = query;
+        this.subProtocol = out.selectedSubprotocol();
+        this.out = out;
+        this.admission = admission;
+        this.maxQueuedBytes = maxQueuedBytes;
+    }
+
+    /** Outbound frames, requested by Netty only as fast as the socket drains them. */
+    Flux<WebSocketFrame> outbound() {
+        return frames.asFlux()
+                .takeUntilOther(closed.asMono())
+                .doOnNext(frame -> {
+                    long bytes = frame.content().readableBytes();
+                    queuedBytes.addAndGet(-bytes);
+                    admission.outboundSent(bytes);
+                })
+                .doFinally(signal -> {
+                    synchronized (frames) {
+                        open = false;
+                    }
+                    // Frames still queued when the socket went away will never be sent
+                    admission.outboundSent(queuedBytes.getAndSet(0));
+                });
+    }
+
+    /** Called once the inbound side has ended; completes the outbound stream. */
+    void terminate() {
+        synchronized (frames) {
+            open = false;
+            frames.tryEmitComplete();
+        }
+    }
+
+    @Override
+    public String id() {
+        return id;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public String subProtocol() {
+        return subProtocol;
+    }
+
+    @Override
+    public String query() {
+        return query;
+    }
+
+    @Override
+    public void sendText(String text) {
+        emit(new TextWebSocketFrame(text));
+    }
+
+    @Override
+    public void sendBinary(ByteBuffer... parts) {
+        emit(new BinaryWebSocketFrame(Unpooled.wrappedBuffer(parts)));
+    }
+
+    @Override
+    public void close(int code, String reason) {
+        synchronized (frames) {
+            if (!open) return;
+            open = false;
+            // Ends the outbound stream now; frames still queued are dropped and released from the byte counts
+            closed.tryEmitValue(true);
+            frames.tryEmitComplete();
+        }
+        out.sendClose(code, reason).subscribe(null,
+                e -> System.err.println("WS close failed (" + id + "): " + e.getMessage()));
+    }
+
+    private void emit(WebSocketFrame frame) {
+        long bytes = frame.content().readableBytes();
+        boolean overflow = false;
+        // The sink needs serialized emission; this only enqueues, so the lock is never held across I/O
+        synchronized (frames) {
+            if (!open) return;
+            if (queuedBytes.get() + bytes > maxQueuedBytes) {
+                overflow = true;
+            } else if (frames.tryEmitNext(frame).isSuccess()) {
+                queuedBytes.addAndGet(bytes);
+                admission.outboundQueued(bytes);
+            }
+        }
+        if (overflow) {
+            System.err.println("Closing slow connection " + id + ": " + queuedBytes.get() + " bytes queued");
+            close(CLOSE_SERVICE_OVERLOAD, "outbound-backlog");
+        }
+    }
+}
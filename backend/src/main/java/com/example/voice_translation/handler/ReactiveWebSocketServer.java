@@ -0,0 +1,111 @@
+package com.example.voice_translation.handler;
+
+import com.example.voice_translation.service.AdmissionControlService;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.WebsocketServerSpec;
+import reactor.netty.http.websocket.WebsocketInbound;
+import reactor.netty.http.websocket.WebsocketOutbound;
+import reactor.netty.resources.LoopResources;
+
+import java.util.UUID;
+
+/**
+ * Non-blocking WebSocket transport on Reactor Netty, on its own port. A small fixed set
+ * of event-loop threads serves every connection, so idle listeners cost only their
+ * socket and queue. Rooms are shared with the servlet transport through {@link RoomFanout}.
+ */
+@Component
+@ConditionalOnExpression("'${realtime.transport:servlet}' != 'servlet'")
+public class ReactiveWebSocketServer {
+
+    private static final String PATH = "/ws/translate";
+
+    private final RoomFanout fanout;
+    private final AdmissionControlService admission;
+
+    @Value("${realtime.reactive.port:8081}")
+    private int port;
+
+    @Value("${realtime.reactive.worker-threads:4}")
+    private int workerThreads;
+
+    @Value("${realtime.reactive.max-frame-bytes:131072}")
+    private int maxFrameBytes;
+
+    @Value("${realtime.reactive.max-queued-bytes:4194304}")
+    private long maxQueuedBytes;
+
+    private LoopResources loops;
+    private DisposableServer server;
+
+    public ReactiveWebSocketServer(RoomFanout fanout, AdmissionControlService admission) {
+        this.fanout = fanout;
+        this.admission = admission;
+    }
+
+    @PostConstruct
+    public void start() {
+        loops = LoopResources.create("ws-reactive", workerThreads, true);
+        WebsocketServerSpec spec = WebsocketServerSpec.builder()
+                .protocols(WireProtocol.FRAMED_DEFLATE.subProtocol + "," + WireProtocol.FRAMED.subProtocol)
+                .maxFramePayloadLength(maxFrameBytes)
+                .build();
+        server = HttpServer.create()
+                .port(port)
+                .runOn(loops)
+                .handle((request, response) -> {
+                    if (!PATH.equals(request.fullPath())) {
+                        return response.status(HttpResponseStatus.NOT_FOUND).send();
+                    }
+                    int q = request.uri().indexOf('?');
+                    String query = q >= 0 ? request.uri().substring(q + 1) : null;
+                    return response.sendWebsocket((in, out) -> serve(in, out, query), spec);
+                })
+                .bindNow();
+        System.out.println("Reactive WebSocket transport listening on port " + server.port()
+                + " with " + workerThreads + " event-loop threads");
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) server.disposeNow();
+        if (loops != null) loops.dispose();
+    }
+
+    private Publisher<Void> serve(WebsocketInbound in, WebsocketOutbound out, String query) {
+        ReactiveConnection connection = new ReactiveConnection(
+                UUID.randomUUID().toString(), query, out, admission, maxQueuedBytes);
+        fanout.open(connection);
+
+        Mono<Void> inbound = in.aggregateFrames(maxFrameBytes)
+                .receiveFrames()
+                .doOnNext(frame -> {
+                    if (frame instanceof BinaryWebSocketFrame) {
+                        fanout.onAudio(connection, ByteBufUtil.getBytes(frame.content()));
+                    } else if (frame instanceof TextWebSocketFrame text) {
+                        fanout.onText(connection, text.text());
+                    }
+                })
+                .doOnError(e -> System.err.println("WS transport error (" + connection.id() + "): " + e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .doFinally(signal -> {
+                    fanout.close(connection);
+                    connection.terminate();
+                })
+                .then();
+        Mono<Void> outbound = out.sendObject(connection.outbound()).then();
+        return Mono.when(inbound, outbound);
+    }
+}
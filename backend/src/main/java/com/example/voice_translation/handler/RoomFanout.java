@@ -0,0 +1,348 @@
+package com.example.voice_translation.handler;
+
+import com.example.voice_translation.model.TranscriptArchiveEntity;
+import com.example.voice_translation.service.AdmissionControlService;
+import com.example.voice_translation.service.AdmissionControlService.PressureLevel;
+import com.example.voice_translation.service.ScriptMatch;
+import com.example.voice_translation.service.ScriptService;
+import com.example.voice_translation.service.SpeechToTextService;
+import com.example.voice_translation.service.StreamingSynthesisService;
+import com.example.voice_translation.service.TextToSpeechService;
+import com.example.voice_translation.service.TranscriptArchiveService;
+import com.example.voice_translation.service.TranslationService;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Room membership and the speaker-to-listeners pipeline: speaker audio goes to STT,
+ * and every final transcript is translated, synthesized and sent to each listener in
+ * the room. Transports only adapt their sessions to {@link Connection} and forward
+ * lifecycle and inbound messages here, so servlet and reactive clients share rooms.
+ */
+@Component
+public class RoomFanout {
+
+    private final SpeechToTextService sttService;
+    private final TranslationService translationService;
+    private final TextToSpeechService ttsService;
+    private final StreamingSynthesisService streamingTts;
+    private final TranscriptArchiveService archiveService;
+    private final AdmissionControlService admission;
+    private final MergeBudget mergeBudget;
+    private final ScriptService scriptService;
+    private final MessageSender sender = new MessageSender();
+
+    // Per-session and Room state
+    private final Map<String, SessionState> sessions = new ConcurrentHashMap<>();
+    private final Map<String, List<Connection>> rooms = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> roomSequences = new ConcurrentHashMap<>();
+
+    public RoomFanout(SpeechToTextService stt, TranslationService tl, TextToSpeechService tts,
+                      StreamingSynthesisService streamingTts, TranscriptArchiveService archive,
+                      AdmissionControlService admission, MergeBudget mergeBudget, ScriptService scriptService) {
+        this.sttService = stt;
+        this.translationService = tl;
+        this.ttsService = tts;
+        this.streamingTts = streamingTts;
+        this.archiveService = archive;
+        this.admission = admission;
+        this.mergeBudget = mergeBudget;
+        this.scriptService = scriptService;
+    }
+
+    void open(Connection connection) {
+        if (!admission.admitJoin()) {
+            rejectOverloaded(connection);
+            return;
+        }
+        SessionState state = parseParams(connection);
+        sessions.put(connection.id(), state);
+
+        // Add session to room group
+        rooms.computeIfAbsent(state.roomId, k -> new CopyOnWriteArrayList<>()).add(connection);
+        System.out.println("WS Connected: " + connection.id() + " | Role: " + state.role + " | Room: " + state.roomId + " | Protocol: " + state.protocol);
+    }
+
+    void onText(Connection connection, String payload) {
+        if ("END_OF_AUDIO".equals(payload)) {
+            System.out.println("End of audio: " + connection.id());
+            SessionState state = sessions.get(connection.id());
+            if (state != null && state.stream != null) {
+                try { state.stream.closeSend(); } catch (Exception e) {
+                    System.err.println("Error closing stream: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    void onAudio(Connection connection, byte[] audio) {
+        SessionState state = sessions.get(connection.id());
+        if (state == null || !"speaker".equals(state.role)) {
+            // Only 'speaker' roles should be sending audio up to the server.
+            return;
+        }
+
+        try {
+            if (state.stream == null && !initSttStream(connection, state)) {
+                return;
+            }
+            sttService.sendAudio(state.stream, audio);
+        } catch (Exception e) {
+            System.err.println("Error handling binary message: " + e.getMessage());
+        }
+    }
+
+    void close(Connection connection) {
+        SessionState state = sessions.remove(connection.id());
+        if (state != null) {
+            List<Connection> roomConnections = rooms.get(state.roomId);
+            if (roomConnections != null) {
+                roomConnections.remove(connection);
+                if (roomConnections.isEmpty()) {
+                    rooms.remove(state.roomId);
+                    roomSequences.remove(state.roomId);
+                }
+            }
+            if (state.stream != null) {
+                try { state.stream.closeSend(); } catch (Exception ignored) {}
+            }
+            releaseSttSlot(state);
+        }
+        System.out.println("WS Disconnected: " + connection.id());
+    }
+
+    private boolean initSttStream(Connection connection, SessionState state) {
+        if (!admission.tryAcquireSttStream()) {
+            rejectOverloaded(connection);
+            return false;
+        }
+        state.sttSlotHeld.set(true);
+        System.out.println("Initializing V2 STT stream for session " + connection.id());
+
+        TranscriptMerger merger = mergeBudget.newMerger(segment -> processTranscriptForRoom(connection, state, segment));
+        state.stream = sttService.startStreaming(state.sourceLang, new SpeechToTextService.StreamCallbacks() {
+            @Override
+            public void onTranscript(String transcript) {
+                merger.offer(transcript);
+            }
+
+            @Override
+            public void onComplete() {
+                System.out.println("STT stream complete for " + connection.id());
+                // Held fragments go out first, so they count as pending before completion is checked
+                merger.flush();
+                releaseSttSlot(state);
+                state.sttDone.set(true);
+                if (state.pending.get() == 0) sender.streamComplete(connection, state);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                System.err.println("STT error: " + t.getMessage());
+                merger.flush();
+                releaseSttSlot(state);
+                state.sttDone.set(true);
+                if (state.pending.get() == 0) sender.streamComplete(connection, state);
+            }
+        });
+        return true;
+    }
+
+    private void releaseSttSlot(SessionState state) {
+        if (state.sttSlotHeld.compareAndSet(true, false)) admission.releaseSttStream();
+    }
+
+    private void rejectOverloaded(Connection connection) {
+        System.err.println("Rejecting session " + connection.id() + ": node overloaded (" + admission.level() + ")");
+        connection.close(Connection.CLOSE_SERVICE_OVERLOAD, "retry-after=" + admission.retryAfterSeconds());
+    }
+
+    private void processTranscriptForRoom(Connection speaker, SessionState speakerState, String transcript) {
+        try {
+            System.out.println("Room " + speakerState.roomId + " Transcript: " + transcript);
+            int sequence = roomSequences.computeIfAbsent(speakerState.roomId, k -> new AtomicInteger()).incrementAndGet();
+
+            // 1. Send Transcript back to speaker
+            sender.transcript(speaker, speakerState, sequence, transcript);
+
+            TranscriptArchiveEntity archiveEntry = archiveService.begin(
+                    speakerState.roomId, speaker.id(), speakerState.sourceLang, transcript);
+            List<CompletableFuture<Void>> listenerTasks = new ArrayList<>();
+            ScriptMatch scriptMatch = scriptService.match(speakerState.roomId, transcript);
+
+            // 2. Broadcast to all Listeners in the room
+            List<Connection> roomConnections = rooms.get(speakerState.roomId);
+            if (roomConnections == null) {
+                archiveService.commit(archiveEntry);
+                return;
+            }
+
+            // Listeners who want the same output share one translation and synthesis
+            Map<ListenerGroup, List<Listener>> groups = new LinkedHashMap<>();
+            for (Connection listener : roomConnections) {
+                SessionState listenerState = sessions.get(listener.id());
+                if (listenerState == null || !"listener".equals(listenerState.role)) continue;
+                groups.computeIfAbsent(ListenerGroup.of(listenerState), k -> new ArrayList<>())
+                        .add(new Listener(listener, listenerState));
+            }
+
+            for (Map.Entry<ListenerGroup, List<Listener>> group : groups.entrySet()) {
+                speakerState.pending.incrementAndGet();
+                CompletableFuture<Void> done = new CompletableFuture<>();
+                listenerTasks.add(done);
+                Runnable finish = () -> {
+                    done.complete(null);
+                    if (speakerState.pending.decrementAndGet() == 0 && speakerState.sttDone.get()) {
+                        sender.streamComplete(speaker, speakerState);
+                    }
+                };
+
+                // Translation and TTS run on the bounded synthesis pool so one slow group doesn't block the loop
+                boolean queued = admission.trySubmitSynthesis(() -> {
+                    try {
+                        deliver(group.getKey(), group.getValue(), speakerState, sequence, transcript, archiveEntry, scriptMatch);
+                    } catch (Exception e) {
+                        System.err.println("Listener processing error: " + e.getMessage());
+                    } finally {
+                        finish.run();
+                    }
+                });
+                if (!queued) {
+                    System.err.println("Synthesis queue full, dropping utterance " + sequence + " for "
+                            + group.getValue().size() + " listener(s) in " + group.getKey().targetLang());
+                    finish.run();
+                }
+            }
+
+            // Archive once every listener language has been translated, off the hot path
+            CompletableFuture.allOf(listenerTasks.toArray(new CompletableFuture[0]))
+                    .whenComplete((ignored, err) -> archiveService.commit(archiveEntry));
+        } catch (Exception e) {
+            System.err.println("Room Broadcasting error: " + e.getMessage());
+        }
+    }
+
+    private record Listener(Connection connection, SessionState state) {}
+
+    /** Everything that decides what a listener receives. Framed listeners can take streamed audio, legacy ones can't. */
+    private record ListenerGroup(String targetLang, String voiceModel, String voiceGender, String prompt, boolean framed) {
+        static ListenerGroup of(SessionState state) {
+            return new ListenerGroup(state.targetLang, state.voiceModel, state.voiceGender, state.prompt,
+                    state.protocol.isFramed());
+        }
+    }
+
+    /**
+     * Translates one utterance for one listener group and sends the text, then the audio unless the node is shedding
+     * load. Every member gets a view of the same buffers. Whatever a script match has pre-rendered for the group is
+     * used instead of calling the providers.
+     */
+    private void deliver(ListenerGroup group, List<Listener> listeners, SessionState speakerState, int sequence,
+                         String transcript, TranscriptArchiveEntity archiveEntry, ScriptMatch scriptMatch) throws Exception {
+        long start = System.nanoTime();
+        String translated = scriptMatch != null ? scriptMatch.translation(group.targetLang()) : null;
+        if (translated == null) {
+            translated = translationService.translateText(transcript, speakerState.sourceLang, group.targetLang());
+        }
+        archiveService.addTranslation(archiveEntry, group.targetLang(), translated);
+        for (Listener listener : listeners) sender.translation(listener.connection(), listener.state(), sequence, translated);
+
+        PressureLevel level = admission.deliveryLevel();
+        if (level.compareTo(PressureLevel.TEXT_ONLY) >= 0) {
+            mergeBudget.recordDelivery((System.nanoTime() - start) / 1_000_000.0);
+            return;
+        }
+
+        // Already paid for, so sent even when the ladder would downgrade premium voices
+        ByteBuffer prerendered = scriptMatch != null ? scriptMatch.audio(group.targetLang(),
+                group.voiceModel(), group.voiceGender(), group.prompt()) : null;
+        if (prerendered != null) {
+            sendAudio(listeners, sequence, prerendered);
+            return;
+        }
+
+        String voiceModel = level == PressureLevel.STANDARD_VOICES && TextToSpeechService.isPremiumVoice(group.voiceModel())
+                ? "Standard" : group.voiceModel();
+        if (group.framed() && streamingTts.supports(voiceModel) && streamAudio(group, listeners, sequence, translated, voiceModel, start)) {
+            return;
+        }
+        ByteBuffer audio = ttsService.synthesize(
+                translated, group.targetLang(),
+                voiceModel, group.voiceGender(), group.prompt());
+
+        sendAudio(listeners, sequence, audio);
+        mergeBudget.recordDelivery((System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    /**
+     * Streams PCM chunks to framed listeners. Returns false if the stream failed before any chunk went out, so the
+     * caller can fall back to MP3. A stream that fails midway is ended with an empty last chunk, so clients never
+     * wait on an utterance that will not finish.
+     */
+    private boolean streamAudio(ListenerGroup group, List<Listener> listeners, int sequence, String translated,
+                                String voiceModel, long start) {
+        AtomicInteger nextChunk = new AtomicInteger();
+        AtomicBoolean ended = new AtomicBoolean();
+        try {
+            streamingTts.synthesize(translated, group.targetLang(), voiceModel, group.voiceGender(), (chunk, index, last) -> {
+                if (index == 0) mergeBudget.recordDelivery((System.nanoTime() - start) / 1_000_000.0);
+                for (Listener listener : listeners) {
+                    sender.audioChunk(listener.connection(), sequence, index, chunk.duplicate(), last);
+                }
+                nextChunk.set(index + 1);
+                if (last) ended.set(true);
+            });
+            return true;
+        } catch (IOException e) {
+            if (ended.get()) return true;
+            if (nextChunk.get() == 0) {
+                System.err.println("Streaming TTS failed, falling back to MP3: " + e.getMessage());
+                return false;
+            }
+            System.err.println("Streaming TTS failed after " + nextChunk.get() + " chunks, ending utterance " + sequence
+                    + ": " + e.getMessage());
+            for (Listener listener : listeners) {
+                sender.audioChunk(listener.connection(), sequence, nextChunk.get(), ByteBuffer.allocate(0), true);
+            }
+            return true;
+        }
+    }
+
+    private void sendAudio(List<Listener> listeners, int sequence, ByteBuffer audio) {
+        for (Listener listener : listeners) sender.audio(listener.connection(), listener.state(), sequence, audio.duplicate());
+    }
+
+    private SessionState parseParams(Connection connection) {
+        String role = "speaker", roomId = "default";
+        String src = "en-US", tgt = "en-US", voice = "Standard", gender = "NEUTRAL", prompt = "";
+
+        String query = connection.query();
+        if (query != null) {
+            for (String p : query.split("&")) {
+                String[] kv = p.split("=");
+                if (kv.length == 2) {
+                    if ("roomId".equals(kv[0])) roomId = kv[1];
+                    if ("role".equals(kv[0])) role = kv[1];
+                    if ("source".equals(kv[0])) src = kv[1];
+                    if ("target".equals(kv[0])) tgt = kv[1];
+                    if ("voice".equals(kv[0])) voice = kv[1];
+                    if ("gender".equals(kv[0])) gender = kv[1];
+                    if ("prompt".equals(kv[0])) prompt = kv[1];
+                }
+            }
+        }
+        WireProtocol protocol = WireProtocol.fromSubProtocol(connection.subProtocol());
+        return new SessionState(roomId, role, src, tgt, voice, gender, prompt, protocol);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.voice_translation.handler;
+
+import com.example.voice_translation.monitoring.WebSocketSendEvent;
+import com.example.voice_translation.service.AdmissionControlService;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/** A session on the servlet WebSocket stack. Sends block, one at a time per session. */
+class ServletConnection implements Connection {
+
+    private final WebSocketSession session;
+    private final AdmissionControlService admission;
+
+    ServletConnection(WebSocketSession session, AdmissionControlService admission) {
+        this.session = session;
+        this.admission = admission;
+    }
+
+    @Override
+    public String id() {
+        return session.getId();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return session.isOpen();
+    }
+
+    @Override
+    public String subProtocol() {
+        return session.getAcceptedProtocol();
+    }
+
+    @Override
+    public String query() {
+        return session.getUri() != null ? session.getUri().getQuery() : null;
+    }
+
+    @Override
+    public void sendText(String text) {
+        send(new TextMessage(text));
+    }
+
+    @Override
+    public void sendBinary(ByteBuffer... parts) {
+        // Multiple parts go out as fragments of one message, so nothing is copied
+        WebSocketMessage<?>[] fragments = new WebSocketMessage<?>[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            fragments[i] = new BinaryMessage(parts[i], i == parts.length - 1);
+        }
+        send(fragments);
+    }
+
+    @Override
+    public void close(int code, String reason) {
+        try {
+            session.close(new CloseStatus(code, reason));
+        } catch (IOException e) {
+            System.err.println("Error closing session " + session.getId() + ": " + e.getMessage());
+        }
+    }
+
+    private void send(WebSocketMessage<?>... parts) {
+        if (!session.isOpen()) return;
+        long bytes = 0;
+        for (WebSocketMessage<?> part : parts) bytes += part.getPayloadLength();
+
+        WebSocketSendEvent event = new WebSocketSendEvent();
+        event.begin();
+        long waitStart = System.nanoTime();
+
+        // Bytes count as queued while waiting for the session lock and during the blocking send
+        admission.outboundQueued(bytes);
+        try {
+            synchronized (session) {
+                long lockAcquired = System.nanoTime();
+                event.lockWait = lockAcquired - waitStart;
+                try {
+                    for (WebSocketMessage<?> part : parts) session.sendMessage(part);
+                } finally {
+                    event.lockHeld = System.nanoTime() - lockAcquired;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Send error: " + e.getMessage());
+        } finally {
+            admission.outboundSent(bytes);
+            event.sessionId = session.getId();
+            event.bytes = bytes;
+            event.parts = parts.length;
+            event.commit();
+        }
+    }
+}
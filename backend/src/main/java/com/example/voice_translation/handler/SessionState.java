@@ -0,0 +1,34 @@
+package com.example.voice_translation.handler;
+
+import com.example.voice_translation.service.SttStream;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Encapsulates all per-session state */
+class SessionState {
+    final String roomId;
+    final String role;
+    final String sourceLang;
+    final String targetLang;
+    final String voiceModel;
+    final String voiceGender;
+    final String prompt;
+    final WireProtocol protocol;
+    final AtomicInteger pending = new AtomicInteger(0);
+    final AtomicBoolean sttDone = new AtomicBoolean(false);
+    final AtomicBoolean sttSlotHeld = new AtomicBoolean(false);
+    volatile SttStream stream;
+
+    SessionState(String roomId, String role, String sourceLang, String targetLang, String voiceModel, String voiceGender,
+                 String prompt, WireProtocol protocol) {
+        this.roomId = roomId;
+        this.role = role;
+        this.sourceLang = sourceLang;
+        this.targetLang = targetLang;
+        this.voiceModel = voiceModel;
+        this.voiceGender = voiceGender;
+        this.prompt = prompt != null ? java.net.URLDecoder.decode(prompt, java.nio.charset.StandardCharsets.UTF_8) : "";
+        this.protocol = protocol;
+    }
+}
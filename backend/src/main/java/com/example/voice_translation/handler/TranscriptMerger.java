@@ -0,0 +1,123 @@
+package com.example.voice_translation.handler;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Sits between one STT stream's finals and the room fan-out. Short finals ("Okay.",
+ * "So,") are held and joined with the ones that follow. The buffer is sent on once
+ * it forms a full sentence, grows past {@code maxChars}, or the merge budget that
+ * started with its first fragment runs out. Segments are handed on in order, and
+ * never while the buffer lock is held.
+ */
+class TranscriptMerger {
+
+    private static final String SENTENCE_END = ".!?…。！？।॥";
+    private static final String TRAILING_CLOSERS = "\"'”’)]」』";
+
+    private final MergeBudget budget;
+    private final ScheduledExecutorService scheduler;
+    private final Executor flushExecutor;
+    private final boolean enabled;
+    private final int minChars;
+    private final int maxChars;
+    private final Consumer<String> sink;
+
+    private final StringBuilder buffer = new StringBuilder();
+    private ScheduledFuture<?> deadline;
+    private long generation;
+
+    /** Segments taken from the buffer, handed to the sink in order by whichever thread holds {@code deliveryLock}. */
+    private final Queue<String> ready = new ConcurrentLinkedQueue<>();
+    private final Object deliveryLock = new Object();
+
+    TranscriptMerger(MergeBudget budget, ScheduledExecutorService scheduler, Executor flushExecutor, boolean enabled,
+                     int minChars, int maxChars, Consumer<String> sink) {
+        this.budget = budget;
+        this.scheduler = scheduler;
+        this.flushExecutor = flushExecutor;
+        this.enabled = enabled;
+        this.minChars = minChars;
+        this.maxChars = maxChars;
+        this.sink = sink;
+    }
+
+    /** Called on the STT callback thread, which also runs the fan-out for any segment this completes. */
+    void offer(String transcript) {
+        budget.finalReceived();
+        String text = transcript.trim();
+        if (text.isEmpty()) return;
+
+        synchronized (this) {
+            if (!enabled) {
+                ready.add(text);
+            } else {
+                if (buffer.length() > 0) buffer.append(' ');
+                buffer.append(text);
+
+                // A sentence that is long enough on its own goes out immediately; "Okay." waits for company
+                boolean sentence = endsSentence(buffer) && buffer.length() >= minChars;
+                if (sentence || buffer.length() >= maxChars) {
+                    take();
+                } else if (deadline == null) {
+                    long scheduled = generation;
+                    deadline = scheduler.schedule(() -> expire(scheduled), budget.budgetMs(), TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+        deliver();
+    }
+
+    /**
+     * Sends whatever is buffered when the stream ends. Returns once every segment taken so
+     * far has been handed on, including one a budget expiry is still delivering.
+     */
+    void flush() {
+        synchronized (this) {
+            take();
+        }
+        deliver();
+    }
+
+    /**
+     * Budget expiry on the shared timer thread. The timer only moves the buffer to the ready
+     * queue; the fan-out runs on the flush executor so one slow room can't hold up the others.
+     */
+    private void expire(long scheduled) {
+        synchronized (this) {
+            if (scheduled != generation) return;
+            take();
+        }
+        flushExecutor.execute(this::deliver);
+    }
+
+    /** Moves the buffer to the ready queue and cancels its deadline. Caller holds the merger lock. */
+    private void take() {
+        generation++;
+        if (deadline != null) {
+            deadline.cancel(false);
+            deadline = null;
+        }
+        if (buffer.length() == 0) return;
+        ready.add(buffer.toString());
+        buffer.setLength(0);
+    }
+
+    private void deliver() {
+        synchronized (deliveryLock) {
+            String segment;
+            while ((segment = ready.poll()) != null) sink.accept(segment);
+        }
+    }
+
+    private static boolean endsSentence(CharSequence text) {
+        int i = text.length() - 1;
+        while (i >= 0 && TRAILING_CLOSERS.indexOf(text.charAt(i)) >= 0) i--;
+        return i >= 0 && SENTENCE_END.indexOf(text.charAt(i)) >= 0;
+    }
+}
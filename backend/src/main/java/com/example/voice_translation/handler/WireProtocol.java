@@ -0,0 +1,28 @@
+package com.example.voice_translation.handler;
+
+/** Message format negotiated for a WebSocket session via Sec-WebSocket-Protocol. */
+enum WireProtocol {
+    /** String prefixes ("TRANSCRIPT:", "TRANSLATION:", "STREAM_COMPLETE") plus untagged binary audio. */
+    LEGACY(null),
+    /** Binary frames with a {@link FrameCodec} header on every message. */
+    FRAMED("vt-frame.v1"),
+    /** Binary frames, with larger text payloads deflate-compressed. */
+    FRAMED_DEFLATE("vt-frame.v1.deflate");
+
+    final String subProtocol;
+
+    WireProtocol(String subProtocol) {
+        this.subProtocol = subProtocol;
+    }
+
+    boolean isFramed() {
+        return this != LEGACY;
+    }
+
+    static WireProtocol fromSubProtocol(String accepted) {
+        for (WireProtocol protocol : values()) {
+            if (protocol.subProtocol != null && protocol.subProtocol.equals(accepted)) return protocol;
+        }
+        return LEGACY;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.voice_translation.model;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BatchJob {
+
+    /** PARTIAL: finished, but some segments are missing from some or all outputs. */
+    public enum Status { QUEUED, RUNNING, COMPLETED, PARTIAL, FAILED }
+
+    private final String id;
+    private final String sourceLang;
+    private final List<String> targetLangs;
+    private final Instant createdAt;
+    private final AtomicInteger completedSegments = new AtomicInteger();
+    private final AtomicInteger failedSegments = new AtomicInteger();
+    private volatile Status status = Status.QUEUED;
+    private volatile int totalSegments;
+    private volatile String error;
+    private volatile Instant finishedAt;
+
+    public BatchJob(String id, String sourceLang, List<String> targetLangs) {
+        this(id, sourceLang, targetLangs, Instant.now());
+    }
+
+    /** Restores a job read back from disk. Progress and status are set afterwards. */
+    public BatchJob(String id, String sourceLang, List<String> targetLangs, Instant createdAt) {
+        this.id = id;
+        this.sourceLang = sourceLang;
+        this.targetLangs = List.copyOf(targetLangs);
+        this.createdAt = createdAt;
+    }
+
+    public String getId() { return id; }
+
+    public String getSourceLang() { return sourceLang; }
+
+    public List<String> getTargetLangs() { return targetLangs; }
+
+    public Instant getCreatedAt() { return createdAt; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public int getTotalSegments() { return totalSegments; }
+    public void setTotalSegments(int totalSegments) { this.totalSegments = totalSegments; }
+
+    public int getCompletedSegments() { return completedSegments.get(); }
+    public int segmentCompleted() { return completedSegments.incrementAndGet(); }
+    public void setCompletedSegments(int completedSegments) { this.completedSegments.set(completedSegments); }
+
+    /** Segments whose transcription, or translation or synthesis for at least one target, failed. */
+    public int getFailedSegments() { return failedSegments.get(); }
+    public int segmentFailed() { return failedSegments.incrementAndGet(); }
+    public void setFailedSegments(int failedSegments) { this.failedSegments.set(failedSegments); }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public Instant getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -0,0 +1,61 @@
+package com.example.voice_translation.model;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** A room's prepared script and the progress of pre-rendering it. */
+public class RoomScript {
+
+    public enum Status { RENDERING, READY, CANCELLED }
+
+    private final String roomId;
+    private final String sourceLang;
+    private final List<String> sentences;
+    private final List<ScriptTarget> targets;
+    private final int totalRenders;
+    private final Instant createdAt = Instant.now();
+    private final AtomicInteger completedRenders = new AtomicInteger();
+    private final AtomicInteger failedRenders = new AtomicInteger();
+    private final AtomicInteger matches = new AtomicInteger();
+    private volatile Status status = Status.RENDERING;
+    private volatile Instant finishedAt;
+
+    public RoomScript(String roomId, String sourceLang, List<String> sentences, List<ScriptTarget> targets, int totalRenders) {
+        this.roomId = roomId;
+        this.sourceLang = sourceLang;
+        this.sentences = List.copyOf(sentences);
+        this.targets = List.copyOf(targets);
+        this.totalRenders = totalRenders;
+    }
+
+    public String getRoomId() { return roomId; }
+
+    public String getSourceLang() { return sourceLang; }
+
+    public List<String> getSentences() { return sentences; }
+
+    public List<ScriptTarget> getTargets() { return targets; }
+
+    public Instant getCreatedAt() { return createdAt; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    /** One render is one sentence translated into one language and synthesized for each of its voices. */
+    public int getTotalRenders() { return totalRenders; }
+
+    /** Renders finished so far, including failed ones. */
+    public int getCompletedRenders() { return completedRenders.get(); }
+    public int renderCompleted() { return completedRenders.incrementAndGet(); }
+
+    public int getFailedRenders() { return failedRenders.get(); }
+    public int renderFailed() { return failedRenders.incrementAndGet(); }
+
+    /** Live transcripts served from the pre-rendered script. */
+    public int getMatches() { return matches.get(); }
+    public int matched() { return matches.incrementAndGet(); }
+
+    public Instant getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
+}
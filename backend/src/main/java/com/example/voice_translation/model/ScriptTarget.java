@@ -0,0 +1,31 @@
+package com.example.voice_translation.model;
+
+/** A language and voice a room script is pre-rendered into. Unset voice fields fall back to the room's voice. */
+public class ScriptTarget {
+    private String lang;
+    private String voiceModel;
+    private String voiceGender;
+    private String voicePrompt;
+
+    public ScriptTarget() {
+    }
+
+    public ScriptTarget(String lang, String voiceModel, String voiceGender, String voicePrompt) {
+        this.lang = lang;
+        this.voiceModel = voiceModel;
+        this.voiceGender = voiceGender;
+        this.voicePrompt = voicePrompt;
+    }
+
+    public String getLang() { return lang; }
+    public void setLang(String lang) { this.lang = lang; }
+
+    public String getVoiceModel() { return voiceModel; }
+    public void setVoiceModel(String voiceModel) { this.voiceModel = voiceModel; }
+
+    public String getVoiceGender() { return voiceGender; }
+    public void setVoiceGender(String voiceGender) { this.voiceGender = voiceGender; }
+
+    public String getVoicePrompt() { return voicePrompt; }
+    public void setVoicePrompt(String voicePrompt) { this.voicePrompt = voicePrompt; }
+}
@@ -0,0 +1,73 @@
+package com.example.voice_translation.model;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Document(collection = "transcript_archive")
+@CompoundIndex(name = "room_order", def = "{'room_id': 1, '_id': 1}")
+public class TranscriptArchiveEntity {
+
+    // Assigned when the transcript is received so archive order follows speech order, not flush order
+    @Id
+    private String id;
+
+    @Field("room_id")
+    private String roomId;
+
+    @Field("speaker_session")
+    private String speakerSession;
+
+    @Field("source_lang")
+    private String sourceLang;
+
+    @Field("transcript")
+    private String transcript;
+
+    @Field("translations")
+    private Map<String, String> translations = new ConcurrentHashMap<>();
+
+    @Field("created_at")
+    private Instant createdAt;
+
+    public TranscriptArchiveEntity() {
+        this.createdAt = Instant.now();
+    }
+
+    public TranscriptArchiveEntity(String roomId, String speakerSession, String sourceLang, String transcript) {
+        this.id = new ObjectId().toHexString();
+        this.roomId = roomId;
+        this.speakerSession = speakerSession;
+        this.sourceLang = sourceLang;
+        this.transcript = transcript;
+        this.createdAt = Instant.now();
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getRoomId() { return roomId; }
+    public void setRoomId(String roomId) { this.roomId = roomId; }
+
+    public String getSpeakerSession() { return speakerSession; }
+    public void setSpeakerSession(String speakerSession) { this.speakerSession = speakerSession; }
+
+    public String getSourceLang() { return sourceLang; }
+    public void setSourceLang(String sourceLang) { this.sourceLang = sourceLang; }
+
+    public String getTranscript() { return transcript; }
+    public void setTranscript(String transcript) { this.transcript = transcript; }
+
+    public Map<String, String> getTranslations() { return translations; }
+    public void setTranslations(Map<String, String> translations) { this.translations = translations; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
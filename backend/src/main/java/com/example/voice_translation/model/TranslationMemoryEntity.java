@@ -0,0 +1,61 @@
+package com.example.voice_translation.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+@Document(collection = "translation_memory")
+public class TranslationMemoryEntity {
+
+    @Id
+    private String id;
+
+    @Field("source_text")
+    private String sourceText;
+
+    @Field("source_lang")
+    private String sourceLang;
+
+    @Field("target_lang")
+    private String targetLang;
+
+    @Field("translated_text")
+    private String translatedText;
+
+    @Field("created_at")
+    private Instant createdAt;
+
+    public TranslationMemoryEntity() {
+        this.createdAt = Instant.now();
+    }
+
+    public TranslationMemoryEntity(String id, String sourceText, String sourceLang, String targetLang, String translatedText) {
+        this.id = id;
+        this.sourceText = sourceText;
+        this.sourceLang = sourceLang;
+        this.targetLang = targetLang;
+        this.translatedText = translatedText;
+        this.createdAt = Instant.now();
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getSourceText() { return sourceText; }
+    public void setSourceText(String sourceText) { this.sourceText = sourceText; }
+
+    public String getSourceLang() { return sourceLang; }
+    public void setSourceLang(String sourceLang) { this.sourceLang = sourceLang; }
+
+    public String getTargetLang() { return targetLang; }
+    public void setTargetLang(String targetLang) { this.targetLang = targetLang; }
+
+    public String getTranslatedText() { return translatedText; }
+    public void setTranslatedText(String translatedText) { this.translatedText = translatedText; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,24 @@
+package com.example.voice_translation.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One audio chunk pushed onto a streaming-recognition call. */
+@Name("voice_translation.SttChunkSend")
+@Label("STT Chunk Send")
+@Category({"Voice Translation", "Speech-to-Text"})
+@Description("Audio chunk sent on a streaming recognition call")
+@StackTrace(false)
+public class SttChunkSendEvent extends jdk.jfr.Event {
+
+    @Label("Region")
+    public String region;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
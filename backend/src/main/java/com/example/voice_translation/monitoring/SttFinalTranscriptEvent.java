@@ -0,0 +1,28 @@
+package com.example.voice_translation.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** A final recognition result arriving on a streaming call. */
+@Name("voice_translation.SttFinalTranscript")
+@Label("STT Final Transcript")
+@Category({"Voice Translation", "Speech-to-Text"})
+@Description("Final transcript received from the recognizer")
+@StackTrace(false)
+public class SttFinalTranscriptEvent extends jdk.jfr.Event {
+
+    @Label("Region")
+    public String region;
+
+    @Label("Characters")
+    public int characters;
+
+    @Label("Since Last Audio")
+    @Description("Time between the most recent audio chunk and this result")
+    @Timespan(Timespan.NANOSECONDS)
+    public long sinceLastAudio;
+}
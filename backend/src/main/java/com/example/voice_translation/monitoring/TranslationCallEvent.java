@@ -0,0 +1,28 @@
+package com.example.voice_translation.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One translation, served from the translation memory or the Translate API. */
+@Name("voice_translation.TranslationCall")
+@Label("Translation Call")
+@Category({"Voice Translation", "Translation"})
+@Description("Text translation, including the translation memory lookup")
+@StackTrace(false)
+public class TranslationCallEvent extends jdk.jfr.Event {
+
+    @Label("Source Language")
+    public String sourceLanguage;
+
+    @Label("Target Language")
+    public String targetLanguage;
+
+    @Label("Characters")
+    public int characters;
+
+    @Label("Memory Hit")
+    public boolean memoryHit;
+}
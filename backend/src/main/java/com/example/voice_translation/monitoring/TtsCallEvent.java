@@ -0,0 +1,45 @@
+package com.example.voice_translation.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One synthesis request, from cache lookup through any voice fallbacks. */
+@Name("voice_translation.TtsCall")
+@Label("TTS Call")
+@Category({"Voice Translation", "Text-to-Speech"})
+@Description("Speech synthesis, including cache lookups and voice fallbacks")
+@StackTrace(false)
+public class TtsCallEvent extends jdk.jfr.Event {
+
+    public static final String TIER_GEMINI_REST = "GEMINI_REST";
+    public static final String TIER_REQUESTED = "REQUESTED";
+    public static final String TIER_WAVENET = "WAVENET";
+    public static final String TIER_STANDARD = "STANDARD";
+    public static final String TIER_STREAMING = "STREAMING";
+    public static final String TIER_HEDGE = "HEDGE";
+
+    @Label("Language")
+    public String languageCode;
+
+    @Label("Requested Voice")
+    public String requestedVoice;
+
+    @Label("Cache Hit")
+    public boolean cacheHit;
+
+    @Label("Cache Tier")
+    @Description("MEMORY or DISK when served from cache")
+    public String cacheTier;
+
+    @Label("Voice Tier")
+    @Description("Tier that produced the audio after fallbacks: REQUESTED, WAVENET, STANDARD, GEMINI_REST, HEDGE or STREAMING")
+    public String voiceTier;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,39 @@
+package com.example.voice_translation.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One outbound WebSocket message. The event duration covers the whole send; the lock
+ * fields split it into waiting for the per-session lock and time spent holding it.
+ */
+@Name("voice_translation.WebSocketSend")
+@Label("WebSocket Send")
+@Category({"Voice Translation", "WebSocket"})
+@Description("Outbound WebSocket message, including per-session lock contention")
+@StackTrace(false)
+public class WebSocketSendEvent extends jdk.jfr.Event {
+
+    @Label("Session")
+    public String sessionId;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Parts")
+    public int parts;
+
+    @Label("Lock Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    public long lockWait;
+
+    @Label("Lock Held")
+    @Timespan(Timespan.NANOSECONDS)
+    public long lockHeld;
+}
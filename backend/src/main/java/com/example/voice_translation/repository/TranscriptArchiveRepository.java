@@ -0,0 +1,16 @@
+package com.example.voice_translation.repository;
+
+import com.example.voice_translation.model.TranscriptArchiveEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TranscriptArchiveRepository extends MongoRepository<TranscriptArchiveEntity, String> {
+
+    List<TranscriptArchiveEntity> findByRoomIdOrderByIdAsc(String roomId, Pageable pageable);
+
+    List<TranscriptArchiveEntity> findByRoomIdAndIdGreaterThanOrderByIdAsc(String roomId, String id, Pageable pageable);
+}
@@ -0,0 +1,9 @@
+package com.example.voice_translation.repository;
+
+import com.example.voice_translation.model.TranslationMemoryEntity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TranslationMemoryRepository extends MongoRepository<TranslationMemoryEntity, String> {
+}
@@ -0,0 +1,163 @@
+package com.example.voice_translation.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks node load (STT streams, pending synthesis tasks, outbound bytes in flight)
+ * against configured caps. Connections are refused on outbound bytes only, and new
+ * speaker streams additionally on the STT stream count, so a node full of speakers
+ * still admits listeners. Voices and audio are degraded on delivery pressure (pending
+ * synthesis and outbound bytes, which are almost all audio).
+ *
+ * Listener synthesis runs on a fixed pool here, and at most {@code max-pending-synthesis}
+ * tasks may be queued or running at once.
+ */
+@Service
+public class AdmissionControlService {
+
+    public enum PressureLevel {
+        /** Full service. */
+        NORMAL,
+        /** Premium (Gemini/Chirp) voices are replaced by Standard voices. */
+        STANDARD_VOICES,
+        /** Listeners get translated text only, no audio. */
+        TEXT_ONLY,
+        /** New connections and speaker streams are rejected with a retry hint. */
+        REJECT_JOINS
+    }
+
+    private final int maxSttStreams;
+    private final int maxPendingSynthesis;
+    private final long maxOutboundBytes;
+    private final double standardVoiceThreshold;
+    private final double textOnlyThreshold;
+    private final double rejectThreshold;
+    private final int retryAfterSeconds;
+
+    private final ExecutorService synthesisExecutor;
+    private final Counter synthesisRejected;
+
+    private final AtomicInteger sttStreams = new AtomicInteger();
+    private final AtomicInteger pendingSynthesis = new AtomicInteger();
+    private final AtomicLong outboundBytes = new AtomicLong();
+
+    public AdmissionControlService(MeterRegistry meterRegistry,
+                                   @Value("${admission.max-stt-streams:200}") int maxSttStreams,
+                                   @Value("${admission.max-pending-synthesis:500}") int maxPendingSynthesis,
+                                   @Value("${admission.max-outbound-bytes:67108864}") long maxOutboundBytes,
+                                   @Value("${admission.standard-voice-threshold:0.7}") double standardVoiceThreshold,
+                                   @Value("${admission.text-only-threshold:0.85}") double textOnlyThreshold,
+                                   @Value("${admission.reject-threshold:1.0}") double rejectThreshold,
+                                   @Value("${admission.retry-after-seconds:10}") int retryAfterSeconds,
+                                   @Value("${admission.synthesis-threads:64}") int synthesisThreads) {
+        this.maxSttStreams = maxSttStreams;
+        this.maxPendingSynthesis = maxPendingSynthesis;
+        this.maxOutboundBytes = maxOutboundBytes;
+        this.standardVoiceThreshold = standardVoiceThreshold;
+        this.textOnlyThreshold = textOnlyThreshold;
+        this.rejectThreshold = rejectThreshold;
+        this.retryAfterSeconds = retryAfterSeconds;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.synthesisExecutor = Executors.newFixedThreadPool(synthesisThreads, r -> {
+            Thread t = new Thread(r, "listener-synthesis-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.synthesisRejected = Counter.builder("translation.admission.synthesis.rejected")
+                .description("Listener synthesis tasks dropped because the pending cap was reached").register(meterRegistry);
+
+        Gauge.builder("translation.admission.pressure.level", () -> level().ordinal())
+                .description("0=normal, 1=standard voices, 2=text only, 3=rejecting joins")
+                .register(meterRegistry);
+        Gauge.builder("translation.admission.stt.streams", sttStreams, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("translation.admission.synthesis.pending", pendingSynthesis, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("translation.admission.outbound.bytes", outboundBytes, AtomicLong::get).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synthesisExecutor.shutdownNow();
+    }
+
+    /** Overall level for reporting: REJECT_JOINS when joins are refused, otherwise the delivery level. */
+    public PressureLevel level() {
+        return admitJoin() ? deliveryLevel() : PressureLevel.REJECT_JOINS;
+    }
+
+    /** How far listener delivery is degraded. Never REJECT_JOINS; STT stream count plays no part. */
+    public PressureLevel deliveryLevel() {
+        double utilization = Math.max(
+                (double) pendingSynthesis.get() / maxPendingSynthesis, (double) outboundBytes.get() / maxOutboundBytes);
+        if (utilization >= textOnlyThreshold) return PressureLevel.TEXT_ONLY;
+        if (utilization >= standardVoiceThreshold) return PressureLevel.STANDARD_VOICES;
+        return PressureLevel.NORMAL;
+    }
+
+    /** Whether a new connection is accepted. STT streams are checked separately, when a speaker starts one. */
+    public boolean admitJoin() {
+        return (double) outboundBytes.get() / maxOutboundBytes < rejectThreshold;
+    }
+
+    public int retryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /** Reserves an STT stream slot. Returns false if the node is at its stream cap or rejecting joins. */
+    public boolean tryAcquireSttStream() {
+        if (!admitJoin() || (double) sttStreams.get() / maxSttStreams >= rejectThreshold) return false;
+        if (sttStreams.incrementAndGet() > maxSttStreams) {
+            sttStreams.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void releaseSttStream() {
+        sttStreams.decrementAndGet();
+    }
+
+    /**
+     * Runs a listener's translation and synthesis on the synthesis pool. Returns false, without
+     * running it, when {@code max-pending-synthesis} tasks are already queued or running.
+     */
+    public boolean trySubmitSynthesis(Runnable task) {
+        if (pendingSynthesis.incrementAndGet() > maxPendingSynthesis) {
+            pendingSynthesis.decrementAndGet();
+            synthesisRejected.increment();
+            return false;
+        }
+        try {
+            synthesisExecutor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    pendingSynthesis.decrementAndGet();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pendingSynthesis.decrementAndGet();
+            synthesisRejected.increment();
+            return false;
+        }
+    }
+
+    public void outboundQueued(long bytes) {
+        outboundBytes.addAndGet(bytes);
+    }
+
+    public void outboundSent(long bytes) {
+        outboundBytes.addAndGet(-bytes);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.voice_translation.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * One append-only, memory-mapped segment file of the disk audio cache.
+ *
+ * Record layout: [int magic][int length][int crc32][32-byte key digest][payload].
+ * The magic is written last so a torn append is never seen as a valid record.
+ */
+class AudioCacheSegment {
+
+    static final int HEADER_BYTES = 4 + 4 + 4 + 32;
+    private static final int MAGIC = 0x56544131; // "VTA1"
+
+    interface RecordVisitor {
+        void visit(byte[] digest, int offset, int length);
+    }
+
+    private final int id;
+    private final Path path;
+    private final MappedByteBuffer map;
+    private int writePos;
+
+    private AudioCacheSegment(int id, Path path, MappedByteBuffer map) {
+        this.id = id;
+        this.path = path;
+        this.map = map;
+    }
+
+    static AudioCacheSegment open(Path path, int id, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            return new AudioCacheSegment(id, path, map);
+        }
+    }
+
+    int id() { return id; }
+
+    int used() { return writePos; }
+
+    boolean hasRoom(int payloadLength) {
+        return (long) writePos + HEADER_BYTES + payloadLength <= map.capacity();
+    }
+
+    /**
+     * Walks every intact record from the start of the segment and positions the
+     * write cursor after the last one. Stops at the first missing or corrupt record.
+     */
+    void scan(RecordVisitor visitor) {
+        int pos = 0;
+        while (pos + HEADER_BYTES <= map.capacity()) {
+            if (map.getInt(pos) != MAGIC) break;
+            int length = map.getInt(pos + 4);
+            int payloadOffset = pos + HEADER_BYTES;
+            if (length < 0 || (long) payloadOffset + length > map.capacity()) break;
+            if (map.getInt(pos + 8) != crc(payloadOffset, length)) break;
+
+            byte[] digest = new byte[32];
+            map.get(pos + 12, digest);
+            visitor.visit(digest, payloadOffset, length);
+            pos = payloadOffset + length;
+        }
+        writePos = pos;
+    }
+
+    /** Appends a record and returns the offset of its payload. Caller must check {@link #hasRoom}. */
+    int append(byte[] digest, byte[] payload) {
+        int pos = writePos;
+        int payloadOffset = pos + HEADER_BYTES;
+        map.put(payloadOffset, payload, 0, payload.length);
+        map.putInt(pos + 4, payload.length);
+        map.putInt(pos + 8, crc(payloadOffset, payload.length));
+        map.put(pos + 12, digest, 0, digest.length);
+        map.putInt(pos, MAGIC);
+        writePos = payloadOffset + payload.length;
+        return payloadOffset;
+    }
+
+    /** Zero-copy, read-only view of a payload inside the mapped region. */
+    ByteBuffer slice(int offset, int length) {
+        return map.slice(offset, length).asReadOnlyBuffer();
+    }
+
+    void flush() {
+        map.force();
+    }
+
+    void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Could not delete cache segment " + path + ": " + e.getMessage());
+        }
+    }
+
+    private int crc(int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(map.slice(offset, length));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.voice_translation.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Second cache tier for synthesized audio, kept in append-only memory-mapped
+ * segment files so the cache is warm again right after a restart.
+ *
+ * Reads are lock-free and served as zero-copy slices of the mapped segments.
+ * When the total size exceeds the limit, the oldest segment is compacted on a
+ * background thread: entries that were hit since they were written are copied
+ * forward, the rest are dropped. Writers only wait for the individual appends.
+ */
+@Component
+public class AudioDiskCache {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentBytes;
+    private final long maxBytes;
+
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Integer, AudioCacheSegment> segments = new ConcurrentSkipListMap<>();
+    private volatile AudioCacheSegment active;
+    private volatile boolean available;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "tts-cache-compaction");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public AudioDiskCache(
+            @Value("${tts.disk-cache.enabled:true}") boolean enabled,
+            @Value("${tts.disk-cache.dir:./tts-cache}") String directory,
+            @Value("${tts.disk-cache.segment-size-mb:64}") int segmentSizeMb,
+            @Value("${tts.disk-cache.max-size-mb:1024}") long maxSizeMb) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentBytes = Math.min(segmentSizeMb, 1024) * 1024 * 1024;
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) return;
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(directory)) {
+                files = listing.filter(p -> segmentId(p) >= 0).sorted().toList();
+            }
+            for (Path file : files) {
+                AudioCacheSegment segment = AudioCacheSegment.open(file, segmentId(file), segmentBytes);
+                segment.scan((digest, offset, length) ->
+                        index.put(HexFormat.of().formatHex(digest), new Entry(segment, offset, length)));
+                segments.put(segment.id(), segment);
+            }
+            active = segments.isEmpty() ? newSegment(1) : segments.lastEntry().getValue();
+            available = true;
+            System.out.println("TTS disk cache opened: " + index.size() + " entries in " + segments.size() + " segments");
+        } catch (IOException e) {
+            System.err.println("TTS disk cache disabled, could not open " + directory + ": " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        compactor.shutdownNow();
+        synchronized (this) {
+            if (available) active.flush();
+        }
+    }
+
+    /** Builds the index key for the given cache dimensions. */
+    public static String key(String... parts) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                sha.update((part != null ? part : "").getBytes(StandardCharsets.UTF_8));
+                sha.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(sha.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Returns a read-only view of the cached audio, or null on a miss. */
+    public ByteBuffer get(String key) {
+        if (!available) return null;
+        Entry entry = index.get(key);
+        if (entry == null) return null;
+        entry.hits++;
+        return entry.segment.slice(entry.offset, entry.length);
+    }
+
+    public void put(String key, byte[] audio) {
+        if (!available || index.containsKey(key)) return;
+        if ((long) audio.length + AudioCacheSegment.HEADER_BYTES > segmentBytes) return;
+        try {
+            synchronized (this) {
+                if (index.containsKey(key)) return;
+                index.put(key, append(HexFormat.of().parseHex(key), audio));
+            }
+        } catch (IOException e) {
+            System.err.println("TTS disk cache write failed: " + e.getMessage());
+            return;
+        }
+        if (usedBytes() > maxBytes && compacting.compareAndSet(false, true)) {
+            compactor.execute(this::compact);
+        }
+    }
+
+    private void compact() {
+        try {
+            while (usedBytes() > maxBytes && segments.size() > 1) {
+                compactOldest();
+            }
+        } catch (IOException e) {
+            System.err.println("TTS disk cache compaction failed: " + e.getMessage());
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    private Entry append(byte[] digest, byte[] audio) throws IOException {
+        if (!active.hasRoom(audio.length)) {
+            active.flush();
+            active = newSegment(active.id() + 1);
+        }
+        return new Entry(active, active.append(digest, audio), audio.length);
+    }
+
+    /**
+     * Runs on the compaction thread. The oldest segment is never the active one, so its
+     * entries are read without the lock; the lock is only held to append each survivor.
+     * Readers keep getting the old entry until it is replaced.
+     */
+    private void compactOldest() throws IOException {
+        AudioCacheSegment oldest;
+        synchronized (this) {
+            if (segments.size() <= 1) return;
+            oldest = segments.pollFirstEntry().getValue();
+        }
+        List<Map.Entry<String, Entry>> residents = new ArrayList<>();
+        index.entrySet().forEach(e -> {
+            if (e.getValue().segment == oldest) residents.add(Map.entry(e.getKey(), e.getValue()));
+        });
+
+        int kept = 0;
+        for (Map.Entry<String, Entry> resident : residents) {
+            Entry entry = resident.getValue();
+            if (entry.hits > 0) {
+                byte[] audio = new byte[entry.length];
+                oldest.slice(entry.offset, entry.length).get(audio);
+                synchronized (this) {
+                    index.replace(resident.getKey(), entry, append(HexFormat.of().parseHex(resident.getKey()), audio));
+                }
+                kept++;
+            } else {
+                index.remove(resident.getKey(), entry);
+            }
+        }
+        oldest.delete();
+        System.out.println("TTS disk cache compacted segment " + oldest.id() + ": kept " + kept + "/" + residents.size());
+    }
+
+    private AudioCacheSegment newSegment(int id) throws IOException {
+        Path file = directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        AudioCacheSegment segment = AudioCacheSegment.open(file, id, segmentBytes);
+        segment.scan((digest, offset, length) -> {});
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private long usedBytes() {
+        long total = 0;
+        for (AudioCacheSegment segment : segments.values()) total += segment.used();
+        return total;
+    }
+
+    private static int segmentId(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) return -1;
+        try {
+            return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static class Entry {
+        final AudioCacheSegment segment;
+        final int offset;
+        final int length;
+        volatile int hits;
+
+        Entry(AudioCacheSegment segment, int offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.voice_translation.service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits long 16-bit PCM WAV recordings into segments short enough for synchronous
+ * recognition. Each cut is placed at the quietest 20ms frame inside the allowed
+ * window, and neighbouring segments overlap slightly so no word is clipped.
+ */
+public final class AudioSegmenter {
+
+    private static final int FRAME_MS = 20;
+    private static final int WAV_HEADER_BYTES = 44;
+
+    /** Format of the PCM data and where it sits inside the WAV container. */
+    public record PcmFormat(int sampleRate, int channels, int dataOffset, int dataLength) {
+        int blockAlign() { return channels * 2; }
+        int bytesPerSecond() { return sampleRate * blockAlign(); }
+    }
+
+    /** Byte range [start, end) of a segment within the PCM data. */
+    public record Segment(int index, int start, int end) {}
+
+    private AudioSegmenter() {}
+
+    /** Returns the PCM layout, or null if the buffer is not a 16-bit PCM WAV file. */
+    public static PcmFormat parseWav(ByteBuffer wav) {
+        ByteBuffer buf = wav.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.remaining() < WAV_HEADER_BYTES || buf.getInt(0) != 0x46464952 || buf.getInt(8) != 0x45564157) {
+            return null; // "RIFF" ... "WAVE"
+        }
+        int sampleRate = 0, channels = 0, bits = 0, format = 0;
+        long pos = 12;
+        while (pos + 8 <= buf.limit()) {
+            int at = (int) pos;
+            int chunkId = buf.getInt(at);
+            int chunkSize = buf.getInt(at + 4);
+            if (chunkId == 0x61746164) { // "data"
+                if (format != 1 || bits != 16 || channels <= 0) return null;
+                // Streamed WAVs may leave the data size unset (0xFFFFFFFF); take what is there
+                int length = Math.min(chunkSize < 0 ? Integer.MAX_VALUE : chunkSize, buf.limit() - at - 8);
+                return new PcmFormat(sampleRate, channels, at + 8, length);
+            }
+            if (chunkSize < 0 || pos + 8 + chunkSize > buf.limit()) return null;
+            if (chunkId == 0x20746d66) { // "fmt "
+                if (chunkSize < 16) return null;
+                format = buf.getShort(at + 8);
+                channels = buf.getShort(at + 10);
+                sampleRate = buf.getInt(at + 12);
+                bits = buf.getShort(at + 22);
+            }
+            pos += 8L + chunkSize + (chunkSize & 1);
+        }
+        return null;
+    }
+
+    public static List<Segment> split(ByteBuffer wav, PcmFormat fmt, double minSeconds, double maxSeconds, double overlapSeconds) {
+        ByteBuffer pcm = wav.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int frameBytes = fmt.bytesPerSecond() * FRAME_MS / 1000 / fmt.blockAlign() * fmt.blockAlign();
+        int minBytes = align(fmt, minSeconds * fmt.bytesPerSecond());
+        int maxBytes = align(fmt, maxSeconds * fmt.bytesPerSecond());
+        int overlapBytes = align(fmt, overlapSeconds * fmt.bytesPerSecond());
+
+        List<Integer> cuts = new ArrayList<>();
+        int start = 0;
+        while (fmt.dataLength() - start > maxBytes) {
+            int quietest = start + maxBytes;
+            double lowest = Double.MAX_VALUE;
+            for (int frame = start + minBytes; frame + frameBytes <= start + maxBytes; frame += frameBytes) {
+                double energy = energy(pcm, fmt.dataOffset() + frame, frameBytes);
+                if (energy < lowest) {
+                    lowest = energy;
+                    quietest = frame + frameBytes / 2 / fmt.blockAlign() * fmt.blockAlign();
+                }
+            }
+            cuts.add(quietest);
+            start = quietest;
+        }
+
+        List<Segment> segments = new ArrayList<>();
+        int previous = 0;
+        for (int i = 0; i <= cuts.size(); i++) {
+            int cut = i < cuts.size() ? cuts.get(i) : fmt.dataLength();
+            int from = Math.max(0, previous - overlapBytes);
+            int to = Math.min(fmt.dataLength(), cut + overlapBytes);
+            segments.add(new Segment(i, from, to));
+            previous = cut;
+        }
+        return segments;
+    }
+
+    /** Copies one segment out as a standalone WAV file. */
+    public static byte[] toWav(ByteBuffer wav, PcmFormat fmt, Segment segment) {
+        int length = segment.end() - segment.start();
+        ByteBuffer out = ByteBuffer.allocate(WAV_HEADER_BYTES + length).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(0x46464952).putInt(36 + length).putInt(0x45564157)
+                .putInt(0x20746d66).putInt(16).putShort((short) 1).putShort((short) fmt.channels())
+                .putInt(fmt.sampleRate()).putInt(fmt.bytesPerSecond())
+                .putShort((short) fmt.blockAlign()).putShort((short) 16)
+                .putInt(0x61746164).putInt(length);
+        out.put(wav.slice(fmt.dataOffset() + segment.start(), length));
+        return out.array();
+    }
+
+    private static double energy(ByteBuffer pcm, int offset, int length) {
+        double sum = 0;
+        int samples = length / 2;
+        for (int i = 0; i < samples; i++) {
+            short sample = pcm.getShort(offset + i * 2);
+            sum += (double) sample * sample;
+        }
+        return samples == 0 ? 0 : sum / samples;
+    }
+
+    private static int align(PcmFormat fmt, double bytes) {
+        return (int) bytes / fmt.blockAlign() * fmt.blockAlign();
+    }
+}
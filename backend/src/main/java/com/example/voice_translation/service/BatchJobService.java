@@ -0,0 +1,359 @@
+package com.example.voice_translation.service;
+
+import com.example.voice_translation.model.BatchJob;
+import com.google.protobuf.ByteString;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Offline translation of long recordings. The upload is spooled to disk, split at
+ * silences, and the segments are transcribed, translated and synthesized in parallel
+ * on a bounded pool. Each segment's audio goes to its own part file as soon as it is
+ * synthesized; parts are stitched in segment order per language at the end.
+ *
+ * Job metadata is saved next to the outputs, so finished jobs survive a restart.
+ * Jobs and their files are deleted {@code retention-hours} after they finish.
+ */
+@Service
+public class BatchJobService {
+
+    private final SpeechToTextService speechToTextService;
+    private final TranslationService translationService;
+    private final TextToSpeechService textToSpeechService;
+    private final BatchJobStore store;
+    private final Path outputDir;
+    private final Duration retention;
+    private final long maxUploadBytes;
+    private final double minSegmentSeconds;
+    private final double maxSegmentSeconds;
+    private final double overlapSeconds;
+    private final String voiceModel;
+
+    private final ExecutorService jobExecutor;
+    private final ExecutorService segmentExecutor;
+    private final ScheduledExecutorService cleanup;
+    private final Map<String, BatchJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, List<Consumer<BatchJob>>> listeners = new ConcurrentHashMap<>();
+
+    public BatchJobService(SpeechToTextService stt, TranslationService tl, TextToSpeechService tts, BatchJobStore store,
+                           @Value("${batch.output-dir:./batch-jobs}") String outputDir,
+                           @Value("${batch.retention-hours:24}") long retentionHours,
+                           @Value("${batch.max-upload-bytes:1073741824}") long maxUploadBytes,
+                           @Value("${batch.max-concurrent-jobs:2}") int maxConcurrentJobs,
+                           @Value("${batch.segment-concurrency:8}") int segmentConcurrency,
+                           @Value("${batch.min-segment-seconds:20}") double minSegmentSeconds,
+                           @Value("${batch.max-segment-seconds:50}") double maxSegmentSeconds,
+                           @Value("${batch.overlap-seconds:0.2}") double overlapSeconds,
+                           @Value("${batch.voice-model:Standard}") String voiceModel) {
+        this.speechToTextService = stt;
+        this.translationService = tl;
+        this.textToSpeechService = tts;
+        this.store = store;
+        this.outputDir = Paths.get(outputDir);
+        this.retention = Duration.ofHours(retentionHours);
+        this.maxUploadBytes = maxUploadBytes;
+        this.minSegmentSeconds = minSegmentSeconds;
+        this.maxSegmentSeconds = maxSegmentSeconds;
+        this.overlapSeconds = overlapSeconds;
+        this.voiceModel = voiceModel;
+        this.jobExecutor = Executors.newFixedThreadPool(maxConcurrentJobs);
+        this.segmentExecutor = Executors.newFixedThreadPool(segmentConcurrency);
+        this.cleanup = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "batch-job-cleanup");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** The upload is larger than {@code batch.max-upload-bytes}. */
+    public static class UploadTooLargeException extends RuntimeException {
+        public UploadTooLargeException(String message) {
+            super(message);
+        }
+    }
+
+    /** Reloads jobs from disk. Jobs that were still running when the process stopped are marked failed. */
+    @PostConstruct
+    public void restore() {
+        for (BatchJob job : store.loadAll(outputDir)) {
+            if (job.getFinishedAt() == null) {
+                Path jobDir = outputDir.resolve(job.getId());
+                job.setError("Interrupted by a restart");
+                job.setStatus(BatchJob.Status.FAILED);
+                job.setFinishedAt(Instant.now());
+                deleteQuietly(jobDir.resolve("input.audio"));
+                store.save(job, jobDir);
+            }
+            jobs.put(job.getId(), job);
+        }
+        cleanup.scheduleWithFixedDelay(this::evictExpired, 0, 1, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleanup.shutdownNow();
+        jobExecutor.shutdownNow();
+        segmentExecutor.shutdownNow();
+    }
+
+    /**
+     * Spools the upload to disk and queues the job. Returns as soon as the upload is stored.
+     * Throws {@link UploadTooLargeException} once the body passes the upload limit.
+     */
+    public BatchJob submit(InputStream audio, String sourceLang, List<String> targetLangs) throws IOException {
+        BatchJob job = new BatchJob(UUID.randomUUID().toString(), sourceLang, targetLangs);
+        Path jobDir = Files.createDirectories(outputDir.resolve(job.getId()));
+        try {
+            spool(audio, jobDir.resolve("input.audio"));
+        } catch (IOException | RuntimeException e) {
+            store.delete(jobDir);
+            throw e;
+        }
+
+        jobs.put(job.getId(), job);
+        store.save(job, jobDir);
+        jobExecutor.submit(() -> run(job, jobDir));
+        return job;
+    }
+
+    private void spool(InputStream audio, Path file) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (int n; (n = audio.read(buffer)) != -1; ) {
+                total += n;
+                if (total > maxUploadBytes) {
+                    throw new UploadTooLargeException("Upload exceeds " + maxUploadBytes + " bytes");
+                }
+                out.write(buffer, 0, n);
+            }
+        }
+    }
+
+    public BatchJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /** Stitched output for a finished job: "<lang>.mp3", "<lang>.txt" or "transcript.txt". */
+    public Path resultFile(String jobId, String fileName) {
+        BatchJob job = jobs.get(jobId);
+        if (job == null || (job.getStatus() != BatchJob.Status.COMPLETED && job.getStatus() != BatchJob.Status.PARTIAL)) {
+            return null;
+        }
+        Path file = inside(outputDir.resolve(jobId), fileName);
+        return file != null && Files.exists(file) ? file : null;
+    }
+
+    /** Resolves a file name under the job directory, or null when it would escape it. */
+    private static Path inside(Path jobDir, String fileName) {
+        Path file = jobDir.resolve(fileName).normalize();
+        return file.startsWith(jobDir.normalize()) ? file : null;
+    }
+
+    /** Registers a callback invoked on every progress change until the job finishes. */
+    public void addListener(String jobId, Consumer<BatchJob> listener) {
+        listeners.computeIfAbsent(jobId, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public void removeListener(String jobId, Consumer<BatchJob> listener) {
+        List<Consumer<BatchJob>> jobListeners = listeners.get(jobId);
+        if (jobListeners != null) jobListeners.remove(listener);
+    }
+
+    /** Text results of one segment. Audio is already on disk as part files. */
+    private record SegmentResult(String transcript, Map<String, String> translations) {}
+
+    private void run(BatchJob job, Path jobDir) {
+        job.setStatus(BatchJob.Status.RUNNING);
+        store.save(job, jobDir);
+        notifyListeners(job);
+        try (FileChannel channel = FileChannel.open(jobDir.resolve("input.audio"))) {
+            MappedByteBuffer input = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            List<Supplier<byte[]>> segmentAudio = segment(input);
+            job.setTotalSegments(segmentAudio.size());
+            store.save(job, jobDir);
+            notifyListeners(job);
+
+            List<CompletableFuture<SegmentResult>> segments = new ArrayList<>();
+            for (int i = 0; i < segmentAudio.size(); i++) {
+                int index = i;
+                Supplier<byte[]> audio = segmentAudio.get(i);
+                segments.add(CompletableFuture.supplyAsync(() -> processSegment(job, jobDir, index, audio.get()), segmentExecutor));
+            }
+            List<SegmentResult> results = new ArrayList<>();
+            for (CompletableFuture<SegmentResult> segment : segments) results.add(segment.join());
+
+            stitch(job, jobDir, results);
+            int failed = job.getFailedSegments();
+            if (failed == 0) {
+                job.setStatus(BatchJob.Status.COMPLETED);
+            } else {
+                job.setError(failed + " of " + job.getTotalSegments() + " segments failed");
+                job.setStatus(failed == job.getTotalSegments() ? BatchJob.Status.FAILED : BatchJob.Status.PARTIAL);
+            }
+        } catch (Exception e) {
+            System.err.println("Batch job " + job.getId() + " failed: " + e.getMessage());
+            job.setError(e.getMessage());
+            job.setStatus(BatchJob.Status.FAILED);
+        }
+        deleteQuietly(jobDir.resolve("input.audio"));
+        job.setFinishedAt(Instant.now());
+        store.save(job, jobDir);
+        notifyListeners(job);
+        listeners.remove(job.getId());
+    }
+
+    /**
+     * Splits 16-bit PCM WAV at silences. Any other format is sent as a single segment.
+     * Segment audio is only copied out of the mapped input when a worker picks it up.
+     */
+    private List<Supplier<byte[]>> segment(ByteBuffer input) {
+        AudioSegmenter.PcmFormat format = AudioSegmenter.parseWav(input);
+        List<Supplier<byte[]>> segments = new ArrayList<>();
+        if (format == null) {
+            segments.add(() -> {
+                byte[] whole = new byte[input.remaining()];
+                input.duplicate().get(whole);
+                return whole;
+            });
+            return segments;
+        }
+        for (AudioSegmenter.Segment segment : AudioSegmenter.split(input, format, minSegmentSeconds, maxSegmentSeconds, overlapSeconds)) {
+            segments.add(() -> AudioSegmenter.toWav(input, format, segment));
+        }
+        return segments;
+    }
+
+    private SegmentResult processSegment(BatchJob job, Path jobDir, int index, byte[] audio) {
+        Map<String, String> translations = new ConcurrentHashMap<>();
+        boolean failed = false;
+        String transcript = "";
+        try {
+            transcript = speechToTextService.recognize(ByteString.copyFrom(audio), job.getSourceLang());
+        } catch (IOException e) {
+            System.err.println("Batch job " + job.getId() + " segment " + index + " transcription failed: " + e.getMessage());
+            failed = true;
+        }
+        if (!transcript.isBlank()) {
+            for (String target : job.getTargetLangs()) {
+                try {
+                    String translated = translationService.translateText(transcript, job.getSourceLang(), target);
+                    translations.put(target, translated);
+                    byte[] speech = textToSpeechService.convertTextToSpeech(translated, target, voiceModel, "NEUTRAL", "");
+                    Files.write(partFile(jobDir, target, index), speech);
+                } catch (Exception e) {
+                    System.err.println("Batch job " + job.getId() + " segment " + index + " failed for " + target + ": " + e.getMessage());
+                    failed = true;
+                }
+            }
+        }
+        if (failed) job.segmentFailed();
+        job.segmentCompleted();
+        notifyListeners(job);
+        return new SegmentResult(transcript, translations);
+    }
+
+    private void stitch(BatchJob job, Path jobDir, List<SegmentResult> results) throws IOException {
+        StringBuilder transcript = new StringBuilder();
+        for (SegmentResult result : results) appendLine(transcript, result.transcript());
+        Files.writeString(jobDir.resolve("transcript.txt"), transcript, StandardCharsets.UTF_8);
+
+        for (String target : job.getTargetLangs()) {
+            Path mp3File = inside(jobDir, target + ".mp3");
+            Path textFile = inside(jobDir, target + ".txt");
+            if (mp3File == null || textFile == null) {
+                throw new IOException("Invalid target language: " + target);
+            }
+            StringBuilder text = new StringBuilder();
+            // MP3 frames are self-delimiting, so segment files concatenate into one playable stream
+            try (FileChannel mp3 = FileChannel.open(mp3File, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (int i = 0; i < results.size(); i++) {
+                    appendLine(text, results.get(i).translations().get(target));
+                    Path part = partFile(jobDir, target, i);
+                    if (!Files.exists(part)) continue;
+                    try (FileChannel in = FileChannel.open(part)) {
+                        long size = in.size();
+                        for (long pos = 0; pos < size; ) pos += in.transferTo(pos, size - pos, mp3);
+                    }
+                }
+            }
+            Files.writeString(textFile, text, StandardCharsets.UTF_8);
+        }
+        store.delete(jobDir.resolve("parts"));
+    }
+
+    private static Path partFile(Path jobDir, String target, int index) throws IOException {
+        Path dir = inside(jobDir, "parts/" + target);
+        if (dir == null) throw new IOException("Invalid target language: " + target);
+        Files.createDirectories(dir);
+        return dir.resolve(index + ".mp3");
+    }
+
+    /** Drops finished jobs, and their files, once they are older than the retention period. */
+    private void evictExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        for (BatchJob job : List.copyOf(jobs.values())) {
+            if (job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff)) {
+                jobs.remove(job.getId());
+                listeners.remove(job.getId());
+                store.delete(outputDir.resolve(job.getId()));
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Could not delete " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static void appendLine(StringBuilder sb, String line) {
+        if (line == null || line.isBlank()) return;
+        if (sb.length() > 0) sb.append('\n');
+        sb.append(line.trim());
+    }
+
+    private void notifyListeners(BatchJob job) {
+        List<Consumer<BatchJob>> jobListeners = listeners.get(job.getId());
+        if (jobListeners == null) return;
+        for (Consumer<BatchJob> listener : jobListeners) {
+            try {
+                listener.accept(job);
+            } catch (Exception e) {
+                jobListeners.remove(listener);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.voice_translation.service;
+
+import com.example.voice_translation.model.BatchJob;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Keeps each batch job's metadata as job.json next to its outputs, so finished jobs
+ * can still be looked up and downloaded after a restart.
+ */
+@Component
+public class BatchJobStore {
+
+    private static final String FILE_NAME = "job.json";
+
+    record StoredJob(String id, String sourceLang, List<String> targetLangs, Instant createdAt,
+                     BatchJob.Status status, int totalSegments, int completedSegments, int failedSegments,
+                     String error, Instant finishedAt) {}
+
+    private final ObjectMapper objectMapper;
+
+    public BatchJobStore(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /** Writes the job's current state, replacing the previous file atomically. */
+    public void save(BatchJob job, Path jobDir) {
+        StoredJob stored = new StoredJob(job.getId(), job.getSourceLang(), job.getTargetLangs(), job.getCreatedAt(),
+                job.getStatus(), job.getTotalSegments(), job.getCompletedSegments(), job.getFailedSegments(),
+                job.getError(), job.getFinishedAt());
+        try {
+            Path tmp = jobDir.resolve(FILE_NAME + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), stored);
+            Files.move(tmp, jobDir.resolve(FILE_NAME), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Could not save batch job " + job.getId() + ": " + e.getMessage());
+        }
+    }
+
+    /** Every job found under the output directory. Unreadable job directories are skipped. */
+    public List<BatchJob> loadAll(Path outputDir) {
+        List<BatchJob> jobs = new ArrayList<>();
+        if (!Files.isDirectory(outputDir)) return jobs;
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(outputDir, Files::isDirectory)) {
+            for (Path dir : dirs) {
+                Path file = dir.resolve(FILE_NAME);
+                if (!Files.exists(file)) continue;
+                try {
+                    jobs.add(restore(objectMapper.readValue(file.toFile(), StoredJob.class)));
+                } catch (IOException e) {
+                    System.err.println("Skipping unreadable batch job " + dir.getFileName() + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Could not list batch jobs in " + outputDir + ": " + e.getMessage());
+        }
+        return jobs;
+    }
+
+    /** Deletes the job directory and everything in it. */
+    public void delete(Path jobDir) {
+        if (!Files.exists(jobDir)) return;
+        try (Stream<Path> paths = Files.walk(jobDir)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not delete batch job directory " + jobDir + ": " + e.getMessage());
+        }
+    }
+
+    private static BatchJob restore(StoredJob stored) {
+        BatchJob job = new BatchJob(stored.id(), stored.sourceLang(), stored.targetLangs(), stored.createdAt());
+        job.setStatus(stored.status());
+        job.setTotalSegments(stored.totalSegments());
+        job.setCompletedSegments(stored.completedSegments());
+        job.setFailedSegments(stored.failedSegments());
+        job.setError(stored.error());
+        job.setFinishedAt(stored.finishedAt());
+        return job;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.voice_translation.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs a slow primary synthesis and, if it has not finished by a percentile of its
+ * recent latency, races a hedge request on a cheaper tier against it. The first
+ * success wins and the other call is cancelled.
+ *
+ * Cancelled primaries are recorded at their elapsed time, so the tail stays in the
+ * latency window and the hedge delay doesn't drift down as hedging cuts it off.
+ */
+final class HedgedSynthesis {
+
+    record Result(byte[] audio, boolean hedged) {}
+
+    private final boolean enabled;
+    private final double percentile;
+    private final int minSamples;
+    private final long initialDelayMs;
+    private final long minDelayMs;
+    private final double[] window;
+    private int windowCount;
+    private int windowNext;
+
+    private final ExecutorService executor;
+    private final Counter requests;
+    private final Counter hedges;
+    private final Counter hedgeWins;
+
+    HedgedSynthesis(boolean enabled, double percentile, int windowSize, int minSamples, long initialDelayMs,
+                    long minDelayMs, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+        this.initialDelayMs = initialDelayMs;
+        this.minDelayMs = minDelayMs;
+        this.window = new double[Math.max(1, windowSize)];
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "tts-hedge");
+            t.setDaemon(true);
+            return t;
+        });
+        this.requests = Counter.builder("tts.hedge.requests")
+                .description("Primary synthesis calls eligible for hedging").register(meterRegistry);
+        this.hedges = Counter.builder("tts.hedge.fired")
+                .description("Hedge requests started because the primary was slow").register(meterRegistry);
+        this.hedgeWins = Counter.builder("tts.hedge.wins")
+                .description("Hedge requests that finished before the primary").register(meterRegistry);
+        Gauge.builder("tts.hedge.delay.ms", this, HedgedSynthesis::hedgeDelayMs).register(meterRegistry);
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Calls the primary, starting the hedge if it runs past the hedge delay. The hedge
+     * future must cancel its underlying call when it is cancelled.
+     */
+    Result execute(Callable<byte[]> primary, Supplier<CompletableFuture<byte[]>> hedge) throws IOException {
+        if (!enabled) {
+            try {
+                return new Result(primary.call(), false);
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+
+        requests.increment();
+        long start = System.nanoTime();
+        CompletableFuture<byte[]> primaryResult = new CompletableFuture<>();
+        Future<?> primaryTask = executor.submit(() -> {
+            try {
+                primaryResult.complete(primary.call());
+            } catch (Throwable t) {
+                primaryResult.completeExceptionally(t);
+            }
+        });
+
+        try {
+            byte[] audio = primaryResult.get((long) hedgeDelayMs(), TimeUnit.MILLISECONDS);
+            record(start);
+            return new Result(audio, false);
+        } catch (TimeoutException e) {
+            // Primary is in its tail; fall through and hedge
+        } catch (ExecutionException e) {
+            throw asIOException(e.getCause());
+        } catch (InterruptedException e) {
+            primaryTask.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Synthesis interrupted", e);
+        }
+
+        hedges.increment();
+        CompletableFuture<byte[]> hedgeResult = hedge.get();
+        CompletableFuture<Result> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        primaryResult.whenComplete((audio, err) -> settle(winner, failures, audio, err, false));
+        hedgeResult.whenComplete((audio, err) -> settle(winner, failures, audio, err, true));
+
+        try {
+            Result result = winner.get();
+            if (result.hedged()) {
+                hedgeWins.increment();
+                primaryTask.cancel(true);
+            } else {
+                hedgeResult.cancel(true);
+            }
+            record(start);
+            return result;
+        } catch (ExecutionException e) {
+            record(start);
+            throw asIOException(e.getCause());
+        } catch (InterruptedException e) {
+            primaryTask.cancel(true);
+            hedgeResult.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Synthesis interrupted", e);
+        }
+    }
+
+    /** Current hedge delay: the configured percentile of the latency window, once it has enough samples. */
+    synchronized double hedgeDelayMs() {
+        if (windowCount < minSamples) return initialDelayMs;
+        double[] sorted = Arrays.copyOf(window, windowCount);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return Math.max(minDelayMs, sorted[Math.max(0, Math.min(index, sorted.length - 1))]);
+    }
+
+    private synchronized void record(long startNanos) {
+        window[windowNext] = (System.nanoTime() - startNanos) / 1_000_000.0;
+        windowNext = (windowNext + 1) % window.length;
+        if (windowCount < window.length) windowCount++;
+    }
+
+    private static void settle(CompletableFuture<Result> winner, AtomicInteger failures, byte[] audio,
+                               Throwable err, boolean hedged) {
+        if (err == null) {
+            winner.complete(new Result(audio, hedged));
+        } else if (failures.incrementAndGet() == 2) {
+            winner.completeExceptionally(err);
+        }
+    }
+
+    private static IOException asIOException(Throwable t) {
+        return t instanceof IOException io ? io : new IOException(t.getMessage(), t);
+    }
+}
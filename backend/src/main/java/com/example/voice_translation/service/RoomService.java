@@ -13,10 +13,12 @@ import java.util.UUID;
 public class RoomService {
     
     private final RoomRepository roomRepository;
+    private final ScriptService scriptService;
 
     @Autowired
-    public RoomService(RoomRepository roomRepository) {
+    public RoomService(RoomRepository roomRepository, ScriptService scriptService) {
         this.roomRepository = roomRepository;
+        this.scriptService = scriptService;
     }
 
     public RoomConfig createRoom(RoomConfig config) {
@@ -55,4 +57,11 @@ public class RoomService {
         }
         return null;
     }
+
+    /** Removes the room's configuration and its pre-rendered script. Returns false if neither existed. */
+    public boolean deleteRoom(String roomId) {
+        boolean existed = roomRepository.existsById(roomId);
+        if (existed) roomRepository.deleteById(roomId);
+        return scriptService.remove(roomId) || existed;
+    }
 }
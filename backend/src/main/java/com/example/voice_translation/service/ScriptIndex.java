@@ -0,0 +1,126 @@
+package com.example.voice_translation.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Token n-gram index over the sentences of a script, for finding which sentence a
+ * live transcript corresponds to. The score is containment in both directions: the
+ * share of the transcript's n-grams found in the sentence and the share of the
+ * sentence's n-grams found in the transcript, whichever is lower. A transcript that
+ * covers only part of a sentence, or runs on into the next one, scores low, while
+ * the odd misrecognized or dropped word costs little.
+ *
+ * Text is NFKC-normalized, lower-cased and stripped of punctuation. Scripts written
+ * without spaces (Han, kana, Thai and similar) are tokenized per character.
+ */
+final class ScriptIndex {
+
+    record Match(int sentence, double score) {}
+
+    private final int n;
+    private final Map<String, List<Integer>> postings = new HashMap<>();
+    private final int[] gramCounts;
+
+    ScriptIndex(List<String> sentences, int n) {
+        this.n = Math.max(1, n);
+        this.gramCounts = new int[sentences.size()];
+        for (int i = 0; i < sentences.size(); i++) {
+            Set<String> grams = grams(sentences.get(i));
+            gramCounts[i] = grams.size();
+            for (String gram : grams) postings.computeIfAbsent(gram, k -> new ArrayList<>()).add(i);
+        }
+    }
+
+    /**
+     * Best-scoring sentence for the transcript, or null if nothing shares an n-gram.
+     * The sentence after {@code expectedNext - 1} gets {@code sequenceBonus}, since
+     * speakers mostly follow the script in order.
+     */
+    Match best(String transcript, int expectedNext, double sequenceBonus) {
+        Set<String> grams = grams(transcript);
+        if (grams.isEmpty()) return null;
+
+        Map<Integer, Integer> common = new HashMap<>();
+        for (String gram : grams) {
+            List<Integer> sentences = postings.get(gram);
+            if (sentences == null) continue;
+            for (int sentence : sentences) common.merge(sentence, 1, Integer::sum);
+        }
+
+        Match best = null;
+        for (Map.Entry<Integer, Integer> entry : common.entrySet()) {
+            int sentence = entry.getKey();
+            int shared = entry.getValue();
+            double score = Math.min((double) shared / grams.size(), (double) shared / gramCounts[sentence]);
+            if (sentence == expectedNext) score += sequenceBonus;
+            if (best == null || score > best.score()) best = new Match(sentence, score);
+        }
+        return best;
+    }
+
+    private Set<String> grams(String text) {
+        List<String> tokens = tokens(text);
+        Set<String> grams = new HashSet<>();
+        if (tokens.isEmpty()) return grams;
+        if (tokens.size() < n) {
+            grams.add(String.join(" ", tokens));
+            return grams;
+        }
+        for (int i = 0; i + n <= tokens.size(); i++) {
+            grams.add(String.join(" ", tokens.subList(i, i + n)));
+        }
+        return grams;
+    }
+
+    static List<String> tokens(String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < normalized.length(); ) {
+            int cp = normalized.codePointAt(i);
+            i += Character.charCount(cp);
+            // Apostrophes are dropped, so "we're" stays one token however the recognizer writes it
+            if (cp == '\'' || cp == '\u2019') continue;
+            if (!isWordPart(cp)) {
+                flush(word, tokens);
+            } else if (isUnspaced(cp)) {
+                flush(word, tokens);
+                tokens.add(new String(Character.toChars(cp)));
+            } else {
+                word.appendCodePoint(cp);
+            }
+        }
+        flush(word, tokens);
+        return tokens;
+    }
+
+    private static void flush(StringBuilder word, List<String> tokens) {
+        if (word.length() > 0) {
+            tokens.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    /** Letters, digits and combining marks, so Indic vowel signs and viramas stay inside their word. */
+    private static boolean isWordPart(int cp) {
+        if (Character.isLetterOrDigit(cp)) return true;
+        int type = Character.getType(cp);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK
+                || type == Character.ENCLOSING_MARK;
+    }
+
+    private static boolean isUnspaced(int cp) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+        return script == Character.UnicodeScript.HAN || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA || script == Character.UnicodeScript.THAI
+                || script == Character.UnicodeScript.LAO || script == Character.UnicodeScript.KHMER
+                || script == Character.UnicodeScript.MYANMAR;
+    }
+}
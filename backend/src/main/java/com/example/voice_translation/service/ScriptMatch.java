@@ -0,0 +1,39 @@
+package com.example.voice_translation.service;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/** A live transcript recognized as one sentence of the room's script, with whatever has been pre-rendered for it. */
+public class ScriptMatch {
+
+    private final int sentence;
+    private final double score;
+    private final Map<String, String> translations;
+    private final Map<String, ByteBuffer> audio;
+
+    ScriptMatch(int sentence, double score, Map<String, String> translations, Map<String, ByteBuffer> audio) {
+        this.sentence = sentence;
+        this.score = score;
+        this.translations = translations;
+        this.audio = audio;
+    }
+
+    public int sentence() {
+        return sentence;
+    }
+
+    public double score() {
+        return score;
+    }
+
+    /** The pre-translated sentence, or null if this language isn't rendered (yet). */
+    public String translation(String lang) {
+        return translations.get(ScriptService.translationKey(lang, sentence));
+    }
+
+    /** Pre-synthesized MP3 for this exact voice, or null. Each call returns an independent view. */
+    public ByteBuffer audio(String lang, String voiceModel, String gender, String prompt) {
+        ByteBuffer rendered = audio.get(ScriptService.audioKey(lang, voiceModel, gender, prompt, sentence));
+        return rendered != null ? rendered.duplicate() : null;
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.voice_translation.service;
+
+import com.example.voice_translation.dto.ScriptUpload;
+import com.example.voice_translation.model.RoomScript;
+import com.example.voice_translation.model.ScriptTarget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.text.BreakIterator;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Pre-rendered script mode. A room's prepared script is split into sentences, and each
+ * one is translated and synthesized for every target voice in the background. During
+ * the session, final transcripts are matched against the script; on a confident match
+ * listeners get the pre-rendered translation and audio without any provider call.
+ *
+ * Renditions are held in memory until the script is replaced or removed, or the room
+ * is deleted. The synthesized audio also lands in the TTS caches, so a re-upload after
+ * a restart renders quickly.
+ */
+@Service
+public class ScriptService {
+
+    private final TranslationService translationService;
+    private final TextToSpeechService textToSpeechService;
+    private final ThreadPoolExecutor renderExecutor;
+    private final int maxTextChars;
+    private final int maxSentences;
+    private final int maxTargets;
+    private final int maxQueuedRenders;
+    private final int ngramSize;
+    private final double matchThreshold;
+    private final double sequenceBonus;
+    private final Counter matchHits;
+    private final Counter matchMisses;
+    private final Map<String, LoadedScript> scripts = new ConcurrentHashMap<>();
+
+    /** The upload exceeds a configured size limit. */
+    public static class ScriptTooLargeException extends RuntimeException {
+        public ScriptTooLargeException(String message) {
+            super(message);
+        }
+    }
+
+    /** A script with its index and renditions. Render workers stop once it is replaced or removed. */
+    private static class LoadedScript {
+        final RoomScript script;
+        final ScriptIndex index;
+        final Map<String, String> translations = new ConcurrentHashMap<>();
+        final Map<String, ByteBuffer> audio = new ConcurrentHashMap<>();
+        volatile int lastMatched = -1;
+        volatile boolean cancelled;
+
+        LoadedScript(RoomScript script, ScriptIndex index) {
+            this.script = script;
+            this.index = index;
+        }
+    }
+
+    public ScriptService(TranslationService translationService, TextToSpeechService textToSpeechService,
+                         MeterRegistry meterRegistry,
+                         @Value("${script.render-concurrency:4}") int renderConcurrency,
+                         @Value("${script.max-text-chars:50000}") int maxTextChars,
+                         @Value("${script.max-sentences:500}") int maxSentences,
+                         @Value("${script.max-targets:10}") int maxTargets,
+                         @Value("${script.max-queued-renders:5000}") int maxQueuedRenders,
+                         @Value("${script.match.ngram:2}") int ngramSize,
+                         @Value("${script.match.threshold:0.7}") double matchThreshold,
+                         @Value("${script.match.sequence-bonus:0.1}") double sequenceBonus) {
+        this.translationService = translationService;
+        this.textToSpeechService = textToSpeechService;
+        this.renderExecutor = (ThreadPoolExecutor) Executors.newFixedThreadPool(renderConcurrency);
+        this.maxTextChars = maxTextChars;
+        this.maxSentences = maxSentences;
+        this.maxTargets = maxTargets;
+        this.maxQueuedRenders = maxQueuedRenders;
+        this.ngramSize = ngramSize;
+        this.matchThreshold = matchThreshold;
+        this.sequenceBonus = sequenceBonus;
+        this.matchHits = Counter.builder("script.match.hits")
+                .description("Transcripts served from a pre-rendered script").register(meterRegistry);
+        this.matchMisses = Counter.builder("script.match.misses")
+                .description("Transcripts in scripted rooms that fell back to the live pipeline").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderExecutor.shutdownNow();
+    }
+
+    /**
+     * Replaces the room's script and starts rendering it. Returns as soon as the index is built.
+     * Every sentence costs one synthesis call per target, so text, sentence and target counts are
+     * capped, as is the total render work queued across rooms.
+     */
+    public synchronized RoomScript upload(String roomId, ScriptUpload upload) {
+        if (upload.getSourceLang() == null || upload.getSourceLang().isBlank()) {
+            throw new IllegalArgumentException("Source language is required");
+        }
+        if (upload.getText() == null || upload.getText().isBlank()) {
+            throw new IllegalArgumentException("Script text is required");
+        }
+        if (upload.getTargets() == null || upload.getTargets().isEmpty()) {
+            throw new IllegalArgumentException("At least one target language is required");
+        }
+        if (upload.getText().length() > maxTextChars) {
+            throw new ScriptTooLargeException("Script text exceeds " + maxTextChars + " characters");
+        }
+        if (upload.getTargets().size() > maxTargets) {
+            throw new ScriptTooLargeException("Script has more than " + maxTargets + " targets");
+        }
+
+        List<String> sentences = sentences(upload.getText(), upload.getSourceLang());
+        if (sentences.size() > maxSentences) {
+            throw new ScriptTooLargeException("Script has more than " + maxSentences + " sentences");
+        }
+        Map<String, List<ScriptTarget>> voicesByLang = new LinkedHashMap<>();
+        for (ScriptTarget target : upload.getTargets()) {
+            if (target == null || target.getLang() == null || target.getLang().isBlank()) {
+                throw new IllegalArgumentException("Every target needs a language");
+            }
+            voicesByLang.computeIfAbsent(target.getLang(), k -> new ArrayList<>()).add(target);
+        }
+        int renders = sentences.size() * voicesByLang.size();
+        if (renderExecutor.getQueue().size() + renders > maxQueuedRenders) {
+            throw new IllegalStateException("Too many script renders queued");
+        }
+
+        RoomScript script = new RoomScript(roomId, upload.getSourceLang(), sentences, upload.getTargets(),
+                renders);
+        LoadedScript loaded = new LoadedScript(script, new ScriptIndex(sentences, ngramSize));
+        LoadedScript previous = scripts.put(roomId, loaded);
+        if (previous != null) cancel(previous);
+
+        for (int i = 0; i < sentences.size(); i++) {
+            int sentence = i;
+            voicesByLang.forEach((lang, voices) ->
+                    renderExecutor.submit(() -> render(loaded, sentence, lang, voices)));
+        }
+        return script;
+    }
+
+    public RoomScript getScript(String roomId) {
+        LoadedScript loaded = scripts.get(roomId);
+        return loaded != null ? loaded.script : null;
+    }
+
+    public boolean remove(String roomId) {
+        LoadedScript loaded = scripts.remove(roomId);
+        if (loaded == null) return false;
+        cancel(loaded);
+        return true;
+    }
+
+    /** Finds the script sentence this transcript corresponds to, or null if the room has no script or nothing fits. */
+    public ScriptMatch match(String roomId, String transcript) {
+        LoadedScript loaded = scripts.get(roomId);
+        if (loaded == null) return null;
+
+        ScriptIndex.Match best = loaded.index.best(transcript, loaded.lastMatched + 1, sequenceBonus);
+        if (best == null || best.score() < matchThreshold) {
+            matchMisses.increment();
+            return null;
+        }
+        loaded.lastMatched = best.sentence();
+        loaded.script.matched();
+        matchHits.increment();
+        return new ScriptMatch(best.sentence(), best.score(), loaded.translations, loaded.audio);
+    }
+
+    static String translationKey(String lang, int sentence) {
+        return lang + "|" + sentence;
+    }
+
+    static String audioKey(String lang, String voiceModel, String gender, String prompt, int sentence) {
+        return lang + "|" + voiceModel + "|" + gender + "|" + (prompt != null ? prompt : "") + "|" + sentence;
+    }
+
+    private void render(LoadedScript loaded, int sentence, String lang, List<ScriptTarget> voices) {
+        if (loaded.cancelled) return;
+        RoomScript script = loaded.script;
+        try {
+            String text = script.getSentences().get(sentence);
+            String translated = translationService.translateText(text, script.getSourceLang(), lang);
+            loaded.translations.put(translationKey(lang, sentence), translated);
+            for (ScriptTarget voice : voices) {
+                if (loaded.cancelled) return;
+                ByteBuffer audio = textToSpeechService.synthesize(translated, lang,
+                        voice.getVoiceModel(), voice.getVoiceGender(), voice.getVoicePrompt());
+                loaded.audio.put(audioKey(lang, voice.getVoiceModel(), voice.getVoiceGender(), voice.getVoicePrompt(), sentence), audio);
+            }
+        } catch (Exception e) {
+            System.err.println("Script render failed for room " + script.getRoomId() + " sentence " + sentence
+                    + " (" + lang + "): " + e.getMessage());
+            script.renderFailed();
+        }
+        if (script.renderCompleted() == script.getTotalRenders() && !loaded.cancelled) {
+            script.setStatus(RoomScript.Status.READY);
+            script.setFinishedAt(Instant.now());
+            System.out.println("Script for room " + script.getRoomId() + " rendered: " + script.getSentences().size()
+                    + " sentences, " + script.getFailedRenders() + " failed renders");
+        }
+    }
+
+    private static void cancel(LoadedScript loaded) {
+        loaded.cancelled = true;
+        loaded.script.setStatus(RoomScript.Status.CANCELLED);
+        loaded.script.setFinishedAt(Instant.now());
+    }
+
+    private static List<String> sentences(String text, String languageCode) {
+        BreakIterator iterator = BreakIterator.getSentenceInstance(Locale.forLanguageTag(languageCode));
+        iterator.setText(text);
+        List<String> sentences = new ArrayList<>();
+        int start = iterator.first();
+        for (int end = iterator.next(); end != BreakIterator.DONE; start = end, end = iterator.next()) {
+            String sentence = text.substring(start, end).trim();
+            if (!sentence.isEmpty()) sentences.add(sentence);
+        }
+        return sentences;
+    }
+}
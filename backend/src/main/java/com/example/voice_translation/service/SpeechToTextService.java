@@ -1,12 +1,16 @@
 package com.example.voice_translation.service;
 
+import com.example.voice_translation.config.GoogleCloudConfig;
+import com.example.voice_translation.config.GrpcClientPool;
+import com.example.voice_translation.monitoring.SttChunkSendEvent;
+import com.example.voice_translation.monitoring.SttFinalTranscriptEvent;
 import com.google.api.gax.rpc.BidiStreamingCallable;
 import com.google.api.gax.rpc.ClientStream;
 import com.google.api.gax.rpc.ResponseObserver;
 import com.google.api.gax.rpc.StreamController;
+import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.speech.v2.AutoDetectDecodingConfig;
 import com.google.cloud.speech.v2.RecognitionConfig;
-import com.google.cloud.speech.v2.RecognizerName;
 import com.google.cloud.speech.v2.SpeechClient;
 import com.google.cloud.speech.v2.StreamingRecognitionConfig;
 import com.google.cloud.speech.v2.StreamingRecognizeRequest;
@@ -15,35 +19,50 @@ import com.google.protobuf.ByteString;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import jakarta.annotation.PostConstruct;
+import java.io.IOException;
 
 @Service
 public class SpeechToTextService {
 
-    private final SpeechClient speechClient;
-    private final String projectId = "gen-lang-client-0732328931";
+    private final SttRegionSelector regionSelector;
+    private final String projectId;
 
-    public SpeechToTextService(SpeechClient speechClient) {
-        this.speechClient = speechClient;
+    public SpeechToTextService(SttRegionSelector regionSelector, GoogleCredentials credentials,
+                               @Value("${stt.project-id:}") String projectId) {
+        this.regionSelector = regionSelector;
+        this.projectId = GoogleCloudConfig.projectId(projectId, credentials);
     }
 
-    public SpeechClient streamingRecognizeClient() {
-        return speechClient;
+    public String transcribe(byte[] audioData, int sampleRateHertz, String languageCode, String contentType) {
+        return transcribe(ByteString.copyFrom(audioData), languageCode);
     }
 
-    public String transcribe(byte[] audioData, int sampleRateHertz, String languageCode, String contentType) {
+    /** Transcribes audio that is already held as a ByteString. Returns "" if recognition fails. */
+    public String transcribe(ByteString audio, String languageCode) {
         try {
+            return recognize(audio, languageCode);
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            return "";
+        }
+    }
+
+    /** Like {@link #transcribe(ByteString, String)}, but a failed request throws instead of reading as silence. */
+    public String recognize(ByteString audio, String languageCode) throws IOException {
+        SttRegion region = regionSelector.select();
+        try (GrpcClientPool<SpeechClient>.Lease lease = region.clients().acquire()) {
             com.google.cloud.speech.v2.RecognizeRequest request = com.google.cloud.speech.v2.RecognizeRequest.newBuilder()
                     .setConfig(com.google.cloud.speech.v2.RecognitionConfig.newBuilder()
                             .setAutoDecodingConfig(com.google.cloud.speech.v2.AutoDetectDecodingConfig.newBuilder().build())
                             .addLanguageCodes(languageCode)
                             .setModel("chirp_3")
                             .build())
-                    .setRecognizer(RecognizerName.of(projectId, "asia-south1", "_").toString())
-                    .setContent(ByteString.copyFrom(audioData))
+                    .setRecognizer(region.recognizer(projectId))
+                    .setContent(audio)
                     .build();
 
-            com.google.cloud.speech.v2.RecognizeResponse response = speechClient.recognize(request);
+            com.google.cloud.speech.v2.RecognizeResponse response = lease.client().recognize(request);
+            region.recordSuccess();
             StringBuilder sb = new StringBuilder();
             response.getResultsList().forEach(r -> {
                 if (r.getAlternativesCount() > 0) {
@@ -51,9 +70,9 @@ public class SpeechToTextService {
                 }
             });
             return sb.toString();
-        } catch (Exception e) {
-            System.err.println("Transcription error: " + e.getMessage());
-            return "";
+        } catch (RuntimeException e) {
+            region.recordError();
+            throw new IOException("Transcription error (" + region.location() + "): " + e.getMessage(), e);
         }
     }
 
@@ -63,28 +82,53 @@ public class SpeechToTextService {
         void onError(Throwable t);
     }
 
-    public ClientStream<StreamingRecognizeRequest> startStreaming(
-            String languageCode, StreamCallbacks callbacks) {
+    public SttStream startStreaming(String languageCode, StreamCallbacks callbacks) {
+        SttRegion region = regionSelector.select();
+        String recognizer = region.recognizer(projectId);
 
-        ResponseObserver<StreamingRecognizeResponse> responseObserver = buildObserver(callbacks);
-
-        BidiStreamingCallable<StreamingRecognizeRequest, StreamingRecognizeResponse> callable =
-                speechClient.streamingRecognizeCallable();
+        // The channel stays leased for the lifetime of the stream
+        GrpcClientPool<SpeechClient>.Lease lease = region.clients().acquire();
+        try {
+            SttStream stream = new SttStream(region, recognizer);
+            ResponseObserver<StreamingRecognizeResponse> responseObserver = buildObserver(callbacks, lease, stream);
+
+            BidiStreamingCallable<StreamingRecognizeRequest, StreamingRecognizeResponse> callable =
+                    lease.client().streamingRecognizeCallable();
+
+            ClientStream<StreamingRecognizeRequest> requestStream = callable.splitCall(responseObserver);
+            stream.attach(requestStream);
+            requestStream.send(buildConfigRequest(languageCode, recognizer));
+            return stream;
+        } catch (RuntimeException e) {
+            lease.close();
+            region.recordError();
+            throw e;
+        }
+    }
 
-        ClientStream<StreamingRecognizeRequest> requestStream = callable.splitCall(responseObserver);
-        requestStream.send(buildConfigRequest(languageCode));
-        return requestStream;
+    public void sendAudio(SttStream stream, byte[] audioData) {
+        sendAudio(stream, audioData, audioData.length);
     }
 
-    public void sendAudio(ClientStream<StreamingRecognizeRequest> stream, byte[] audioData) {
+    /** Sends the first {@code length} bytes of a reusable read buffer. */
+    public void sendAudio(SttStream stream, byte[] audioData, int length) {
         StreamingRecognizeRequest request = StreamingRecognizeRequest.newBuilder()
-                .setAudio(ByteString.copyFrom(audioData))
-                .setRecognizer(RecognizerName.of(projectId, "asia-south1", "_").toString())
+                .setAudio(ByteString.copyFrom(audioData, 0, length))
+                .setRecognizer(stream.recognizer())
                 .build();
-        stream.send(request);
+        stream.lastAudioNanos = System.nanoTime();
+
+        SttChunkSendEvent event = new SttChunkSendEvent();
+        event.begin();
+        stream.requests().send(request);
+        if (event.shouldCommit()) {
+            event.region = stream.region().location();
+            event.bytes = length;
+            event.commit();
+        }
     }
 
-    private StreamingRecognizeRequest buildConfigRequest(String languageCode) {
+    private StreamingRecognizeRequest buildConfigRequest(String languageCode, String recognizer) {
         AutoDetectDecodingConfig decodingConfig = AutoDetectDecodingConfig.newBuilder().build();
 
         RecognitionConfig config = RecognitionConfig.newBuilder()
@@ -98,12 +142,14 @@ public class SpeechToTextService {
                 .build();
 
         return StreamingRecognizeRequest.newBuilder()
-                .setRecognizer(RecognizerName.of(projectId, "asia-south1", "_").toString())
+                .setRecognizer(recognizer)
                 .setStreamingConfig(streamingConfig)
                 .build();
     }
 
-    private ResponseObserver<StreamingRecognizeResponse> buildObserver(StreamCallbacks callbacks) {
+    private ResponseObserver<StreamingRecognizeResponse> buildObserver(StreamCallbacks callbacks, AutoCloseable lease,
+                                                                       SttStream stream) {
+        SttRegion region = stream.region();
         return new ResponseObserver<>() {
             @Override
             public void onStart(StreamController controller) {}
@@ -112,22 +158,41 @@ public class SpeechToTextService {
             public void onResponse(StreamingRecognizeResponse response) {
                 response.getResultsList().forEach(result -> {
                     if (result.getIsFinal() && result.getAlternativesCount() > 0) {
-                        callbacks.onTranscript(result.getAlternativesList().get(0).getTranscript());
+                        String transcript = result.getAlternativesList().get(0).getTranscript();
+                        long sinceLastAudio = System.nanoTime() - stream.lastAudioNanos;
+                        // Passive latency: audio sent to final result, which excludes how long the user spoke
+                        if (stream.lastAudioNanos != 0) region.recordLatency(sinceLastAudio / 1_000_000.0);
+                        SttFinalTranscriptEvent event = new SttFinalTranscriptEvent();
+                        if (event.shouldCommit()) {
+                            event.region = region.location();
+                            event.characters = transcript.length();
+                            event.sinceLastAudio = sinceLastAudio;
+                            event.commit();
+                        }
+                        callbacks.onTranscript(transcript);
                     }
                 });
             }
 
             @Override
             public void onError(Throwable t) {
-                System.err.println("STT Stream Error: " + t.getMessage());
+                System.err.println("STT Stream Error (" + region.location() + "): " + t.getMessage());
+                region.recordError();
+                release();
                 callbacks.onError(t);
             }
 
             @Override
             public void onComplete() {
                 System.out.println("STT Stream Completed");
+                region.recordSuccess();
+                release();
                 callbacks.onComplete();
             }
+
+            private void release() {
+                try { lease.close(); } catch (Exception ignored) {}
+            }
         };
     }
 }
@@ -0,0 +1,77 @@
+package com.example.voice_translation.service;
+
+import com.example.voice_translation.config.GrpcClientPool;
+import com.google.cloud.speech.v2.RecognizerName;
+import com.google.cloud.speech.v2.SpeechClient;
+
+/**
+ * One Speech-to-Text location with its endpoint, client pool and recent health.
+ * Two signals are kept apart: latency and health, both exponentially weighted moving
+ * averages. Latency comes passively from live streams, as the time from the last audio
+ * chunk to its final result, and from TCP connect probes when they are enabled. Stream
+ * duration is never used, since it mostly measures how long the user took to speak.
+ * Health is the error rate of streams, requests and probes.
+ */
+public class SttRegion {
+
+    private static final double ALPHA = 0.2;
+    private static final double ERROR_PENALTY = 4.0;
+
+    private final String location;
+    private final String endpoint;
+    private final GrpcClientPool<SpeechClient> clients;
+    private volatile double rttMs;
+    private volatile boolean measured;
+    private volatile double errorRate;
+
+    public SttRegion(String location, String endpoint, GrpcClientPool<SpeechClient> clients) {
+        this.location = location;
+        this.endpoint = endpoint;
+        this.clients = clients;
+    }
+
+    public String location() { return location; }
+
+    public String endpoint() { return endpoint; }
+
+    public GrpcClientPool<SpeechClient> clients() { return clients; }
+
+    /** Latency estimate; 0 until the first stream result or probe. */
+    public double rttMs() { return rttMs; }
+
+    /** Whether a stream result or probe has measured this region yet. */
+    public boolean measured() { return measured; }
+
+    public double errorRate() { return errorRate; }
+
+    public String recognizer(String projectId) {
+        return RecognizerName.of(projectId, location, "_").toString();
+    }
+
+    /**
+     * Lower is better. Measured regions score their latency inflated by the error rate;
+     * unmeasured ones score on error rate alone and are only compared with each other.
+     */
+    public double score() {
+        return (measured ? rttMs : 1.0) * (1 + ERROR_PENALTY * errorRate);
+    }
+
+    /** A probe round trip. The first sample replaces the empty estimate rather than averaging into it. */
+    public void recordRtt(double sampleMs) {
+        recordLatency(sampleMs);
+    }
+
+    /** Time from the last audio sent on a live stream to its final result. */
+    public synchronized void recordLatency(double sampleMs) {
+        rttMs = measured ? rttMs + ALPHA * (sampleMs - rttMs) : sampleMs;
+        measured = true;
+    }
+
+    public synchronized void recordSuccess() {
+        errorRate = errorRate * (1 - ALPHA);
+    }
+
+    public synchronized void recordError() {
+        errorRate = errorRate * (1 - ALPHA) + ALPHA;
+    }
+}
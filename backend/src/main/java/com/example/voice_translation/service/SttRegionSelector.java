@@ -0,0 +1,90 @@
+package com.example.voice_translation.service;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picks the Speech-to-Text region for each new stream by lowest latency/error score.
+ * Latency is sampled passively from live streams and, optionally, by TCP connect
+ * probes; health comes from streams, requests and probes. Measured regions are
+ * preferred over unmeasured ones, so traffic never drifts to a region only because
+ * nothing is known about it. Among unmeasured regions the healthiest wins and ties go
+ * to the one listed first. A small share of selections explores another region, which
+ * is also how regions other than the first get their first latency samples.
+ */
+public class SttRegionSelector implements AutoCloseable {
+
+    private static final int PROBE_TIMEOUT_MS = 2000;
+
+    private final List<SttRegion> regions;
+    private final double exploreRatio;
+    private ScheduledExecutorService prober;
+
+    public SttRegionSelector(List<SttRegion> regions, double exploreRatio) {
+        if (regions.isEmpty()) throw new IllegalArgumentException("At least one STT region is required");
+        this.regions = List.copyOf(regions);
+        this.exploreRatio = exploreRatio;
+    }
+
+    public List<SttRegion> regions() {
+        return regions;
+    }
+
+    /** Returns the best region. Ties go to the region listed first. */
+    public SttRegion select() {
+        SttRegion best = null;
+        for (SttRegion region : regions) {
+            if (best == null || better(region, best)) best = region;
+        }
+        if (regions.size() > 1 && ThreadLocalRandom.current().nextDouble() < exploreRatio) {
+            SttRegion other = regions.get(ThreadLocalRandom.current().nextInt(regions.size()));
+            if (other != best) return other;
+        }
+        return best;
+    }
+
+    private static boolean better(SttRegion candidate, SttRegion current) {
+        if (candidate.measured() != current.measured()) return candidate.measured();
+        return candidate.score() < current.score();
+    }
+
+    /** Starts measuring TCP connect time to every region endpoint at a fixed interval. */
+    public void startProbes(long intervalSeconds) {
+        if (intervalSeconds <= 0 || prober != null) return;
+        prober = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "stt-region-probe");
+            t.setDaemon(true);
+            return t;
+        });
+        prober.scheduleWithFixedDelay(this::probeAll, 0, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    void probeAll() {
+        for (SttRegion region : regions) {
+            String endpoint = region.endpoint().replaceFirst("^plaintext://", "");
+            int colon = endpoint.lastIndexOf(':');
+            String host = colon > 0 ? endpoint.substring(0, colon) : endpoint;
+            int port = colon > 0 ? Integer.parseInt(endpoint.substring(colon + 1)) : 443;
+
+            long start = System.nanoTime();
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress(host, port), PROBE_TIMEOUT_MS);
+                region.recordRtt((System.nanoTime() - start) / 1_000_000.0);
+            } catch (IOException e) {
+                region.recordError();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (prober != null) prober.shutdownNow();
+        for (SttRegion region : regions) region.clients().close();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.voice_translation.service;
+
+import com.google.api.gax.rpc.ClientStream;
+import com.google.cloud.speech.v2.StreamingRecognizeRequest;
+
+/** A live streaming-recognition call bound to the region it was started in. */
+public class SttStream {
+
+    private final SttRegion region;
+    private final String recognizer;
+    private volatile ClientStream<StreamingRecognizeRequest> requests;
+    volatile long lastAudioNanos;
+
+    SttStream(SttRegion region, String recognizer) {
+        this.region = region;
+        this.recognizer = recognizer;
+    }
+
+    void attach(ClientStream<StreamingRecognizeRequest> requests) {
+        this.requests = requests;
+    }
+
+    public SttRegion region() {
+        return region;
+    }
+
+    public void closeSend() {
+        requests.closeSend();
+    }
+
+    ClientStream<StreamingRecognizeRequest> requests() {
+        return requests;
+    }
+
+    String recognizer() {
+        return recognizer;
+    }
+}
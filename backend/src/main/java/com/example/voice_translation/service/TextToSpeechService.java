@@ -1,17 +1,29 @@
 package com.example.voice_translation.service;
 
+import com.example.voice_translation.config.GrpcClientPool;
+import com.example.voice_translation.monitoring.TtsCallEvent;
 import com.google.cloud.texttospeech.v1.*;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.protobuf.ByteString;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
+import com.google.auth.oauth2.AccessToken;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.auth.oauth2.ServiceAccountCredentials;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
@@ -19,21 +31,50 @@ import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.web.client.HttpStatusCodeException;
 
 @Service
 public class TextToSpeechService {
 
-    private final TextToSpeechClient textToSpeechClient;
+    private static final String AUDIO_CODEC = "MP3";
+    private static final long TOKEN_MIN_VALIDITY_MS = 60_000;
+
+    private final GrpcClientPool<TextToSpeechClient> textToSpeechClients;
     private final GoogleCredentials credentials;
+    private final String projectId;
+    private final AudioDiskCache diskCache;
     private final RestTemplate restTemplate = new RestTemplate();
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final Map<String, byte[]> audioCache = new ConcurrentHashMap<>();
+    private final HedgedSynthesis hedging;
+    private final String hedgeVoice;
 
-    public TextToSpeechService(TextToSpeechClient textToSpeechClient, GoogleCredentials credentials) {
-        this.textToSpeechClient = textToSpeechClient;
+    public TextToSpeechService(GrpcClientPool<TextToSpeechClient> textToSpeechClients, GoogleCredentials credentials,
+                               AudioDiskCache diskCache, MeterRegistry meterRegistry,
+                               @Value("${tts.hedge.enabled:true}") boolean hedgeEnabled,
+                               @Value("${tts.hedge.percentile:0.95}") double hedgePercentile,
+                               @Value("${tts.hedge.window:200}") int hedgeWindow,
+                               @Value("${tts.hedge.min-samples:20}") int hedgeMinSamples,
+                               @Value("${tts.hedge.initial-delay-ms:2500}") long hedgeInitialDelayMs,
+                               @Value("${tts.hedge.min-delay-ms:300}") long hedgeMinDelayMs,
+                               @Value("${tts.hedge.voice:Standard}") String hedgeVoice) {
+        this.textToSpeechClients = textToSpeechClients;
         this.credentials = credentials;
+        this.diskCache = diskCache;
+        this.hedging = new HedgedSynthesis(hedgeEnabled, hedgePercentile, hedgeWindow, hedgeMinSamples,
+                hedgeInitialDelayMs, hedgeMinDelayMs, meterRegistry);
+        this.hedgeVoice = hedgeVoice;
+        // Get project ID from the service account credentials (not ServiceOptions which returns wrong project)
+        this.projectId = (credentials instanceof ServiceAccountCredentials)
+                ? ((ServiceAccountCredentials) credentials).getProjectId()
+                : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hedging.shutdown();
     }
 
     public byte[] convertTextToSpeech(String text, String languageCode) throws IOException {
@@ -41,41 +82,77 @@ public class TextToSpeechService {
     }
 
     public byte[] convertTextToSpeech(String text, String languageCode, String voiceModel, String gender, String prompt) throws IOException {
+        ByteBuffer audio = synthesize(text, languageCode, voiceModel, gender, prompt);
+        if (audio.hasArray() && !audio.isReadOnly()) return audio.array();
+        byte[] copy = new byte[audio.remaining()];
+        audio.get(copy);
+        return copy;
+    }
+
+    /**
+     * Synthesizes MP3 audio, checking the in-memory tier and then the disk tier first.
+     * Disk hits are returned as read-only views of the mapped cache segment, without copying.
+     */
+    public ByteBuffer synthesize(String text, String languageCode, String voiceModel, String gender, String prompt) throws IOException {
+        TtsCallEvent event = new TtsCallEvent();
+        event.begin();
+        try {
+            ByteBuffer audio = synthesize(text, languageCode, voiceModel, gender, prompt, event);
+            event.bytes = audio.remaining();
+            return audio;
+        } finally {
+            event.languageCode = languageCode;
+            event.requestedVoice = voiceModel;
+            event.commit();
+        }
+    }
+
+    private ByteBuffer synthesize(String text, String languageCode, String voiceModel, String gender, String prompt,
+                                  TtsCallEvent event) throws IOException {
         String cacheKey = text + "|" + languageCode + "|" + voiceModel + "|" + gender + "|" + prompt;
-        if (audioCache.containsKey(cacheKey)) {
-            return audioCache.get(cacheKey);
+        byte[] cached = audioCache.get(cacheKey);
+        if (cached != null) {
+            event.cacheHit = true;
+            event.cacheTier = "MEMORY";
+            return ByteBuffer.wrap(cached);
+        }
+
+        String diskKey = AudioDiskCache.key(text, languageCode, voiceModel, gender, prompt, AUDIO_CODEC);
+        ByteBuffer onDisk = diskCache.get(diskKey);
+        if (onDisk != null) {
+            event.cacheHit = true;
+            event.cacheTier = "DISK";
+            return onDisk;
         }
 
         byte[] audioData;
-        if (voiceModel != null && (voiceModel.startsWith("gemini") || voiceModel.toLowerCase().contains("chirp"))) {
-            audioData = generateWithGeminiREST(text, languageCode, voiceModel, gender, prompt);
+        if (isPremiumVoice(voiceModel)) {
+            HedgedSynthesis.Result result = hedging.execute(
+                    () -> generateWithGeminiREST(text, languageCode, voiceModel, gender, prompt),
+                    () -> hedgeSynthesis(text, languageCode, gender));
+            if (result.hedged()) {
+                // Cached under the hedge voice's own key, so the next request still tries the requested voice
+                remember(text, languageCode, hedgeVoice, gender, "", result.audio());
+                event.voiceTier = TtsCallEvent.TIER_HEDGE;
+                return ByteBuffer.wrap(result.audio());
+            }
+            audioData = result.audio();
+            event.voiceTier = TtsCallEvent.TIER_GEMINI_REST;
         } else {
             SynthesisInput input = SynthesisInput.newBuilder().setText(text).build();
 
-            SsmlVoiceGender ssmlGender = switch (gender != null ? gender : "NEUTRAL") {
-                case "MALE" -> SsmlVoiceGender.MALE;
-                case "FEMALE" -> SsmlVoiceGender.FEMALE;
-                default -> SsmlVoiceGender.NEUTRAL;
-            };
-
-            VoiceSelectionParams.Builder voiceBuilder = VoiceSelectionParams.newBuilder()
-                    .setLanguageCode(languageCode)
-                    .setSsmlGender(ssmlGender);
-
-            // Construct voice name like "en-US-Neural2-A" (F) or "en-US-Neural2-B" (M)
-            if (voiceModel != null && !voiceModel.isEmpty() && !"Standard".equals(voiceModel)) {
-                String suffix = ssmlGender == SsmlVoiceGender.MALE ? "-B" : "-A";
-                voiceBuilder.setName(languageCode + "-" + voiceModel + suffix);
-            }
+            SsmlVoiceGender ssmlGender = ssmlGender(gender);
+            VoiceSelectionParams.Builder voiceBuilder = voiceParams(languageCode, voiceModel, ssmlGender);
 
             AudioConfig audioConfig = AudioConfig.newBuilder()
                     .setAudioEncoding(AudioEncoding.MP3)
                     .build();
 
             try {
-                SynthesizeSpeechResponse response = textToSpeechClient.synthesizeSpeech(
+                SynthesizeSpeechResponse response = synthesizeGrpc(
                         input, voiceBuilder.build(), audioConfig);
                 audioData = response.getAudioContent().toByteArray();
+                event.voiceTier = TtsCallEvent.TIER_REQUESTED;
             } catch (Exception e) {
                 System.err.println("Voice " + voiceBuilder.getName() + " not found, attempting fallback to WaveNet for " + languageCode);
                 
@@ -88,9 +165,10 @@ public class TextToSpeechService {
                     .build();
 
                 try {
-                    SynthesizeSpeechResponse wavenetResponse = textToSpeechClient.synthesizeSpeech(
+                    SynthesizeSpeechResponse wavenetResponse = synthesizeGrpc(
                             input, wavenetVoice, audioConfig);
                     audioData = wavenetResponse.getAudioContent().toByteArray();
+                    event.voiceTier = TtsCallEvent.TIER_WAVENET;
                     System.out.println("Successfully fell back to WaveNet for " + languageCode);
                 } catch (Exception wavenetErr) {
                     System.err.println("WaveNet voice " + wavenetVoice.getName() + " not found, falling back to Standard for " + languageCode);
@@ -102,9 +180,10 @@ public class TextToSpeechService {
                         .build();
                     
                     try {
-                        SynthesizeSpeechResponse standardResponse = textToSpeechClient.synthesizeSpeech(
+                        SynthesizeSpeechResponse standardResponse = synthesizeGrpc(
                                 input, standardVoice, audioConfig);
                         audioData = standardResponse.getAudioContent().toByteArray();
+                        event.voiceTier = TtsCallEvent.TIER_STANDARD;
                     } catch (Exception standardErr) {
                         throw new IOException("TTS Failed even on Standard fallback: " + standardErr.getMessage());
                     }
@@ -112,20 +191,115 @@ public class TextToSpeechService {
             }
         }
 
-        audioCache.put(cacheKey, audioData);
+        remember(text, languageCode, voiceModel, gender, prompt, audioData);
+        return ByteBuffer.wrap(audioData);
+    }
+
+    private void remember(String text, String languageCode, String voiceModel, String gender, String prompt, byte[] audioData) {
+        audioCache.put(text + "|" + languageCode + "|" + voiceModel + "|" + gender + "|" + prompt, audioData);
         if (audioCache.size() > 1000) audioCache.clear();
-        return audioData;
+        diskCache.put(AudioDiskCache.key(text, languageCode, voiceModel, gender, prompt, AUDIO_CODEC), audioData);
     }
 
-    private byte[] generateWithGeminiREST(String text, String languageCode, String voiceModel, String speakerAlias, String prompt) throws IOException {
-        credentials.refreshIfExpired();
-        String token = credentials.getAccessToken().getTokenValue();
+    private static SsmlVoiceGender ssmlGender(String gender) {
+        return switch (gender != null ? gender : "NEUTRAL") {
+            case "MALE" -> SsmlVoiceGender.MALE;
+            case "FEMALE" -> SsmlVoiceGender.FEMALE;
+            default -> SsmlVoiceGender.NEUTRAL;
+        };
+    }
 
-        // Get project ID from the service account credentials (not ServiceOptions which returns wrong project)
-        String projectId = (credentials instanceof ServiceAccountCredentials)
-                ? ((ServiceAccountCredentials) credentials).getProjectId()
-                : null;
+    private static VoiceSelectionParams.Builder voiceParams(String languageCode, String voiceModel, SsmlVoiceGender ssmlGender) {
+        VoiceSelectionParams.Builder voiceBuilder = VoiceSelectionParams.newBuilder()
+                .setLanguageCode(languageCode)
+                .setSsmlGender(ssmlGender);
+
+        // Construct voice name like "en-US-Neural2-A" (F) or "en-US-Neural2-B" (M)
+        if (voiceModel != null && !voiceModel.isEmpty() && !"Standard".equals(voiceModel)) {
+            String suffix = ssmlGender == SsmlVoiceGender.MALE ? "-B" : "-A";
+            voiceBuilder.setName(languageCode + "-" + voiceModel + suffix);
+        }
+        return voiceBuilder;
+    }
+
+    /** Non-blocking synthesis on the hedge voice. Cancelling the returned future cancels the RPC. */
+    private CompletableFuture<byte[]> hedgeSynthesis(String text, String languageCode, String gender) {
+        SynthesizeSpeechRequest request = SynthesizeSpeechRequest.newBuilder()
+                .setInput(SynthesisInput.newBuilder().setText(text))
+                .setVoice(voiceParams(languageCode, hedgeVoice, ssmlGender(gender)))
+                .setAudioConfig(AudioConfig.newBuilder().setAudioEncoding(AudioEncoding.MP3))
+                .build();
 
+        GrpcClientPool<TextToSpeechClient>.Lease lease = textToSpeechClients.acquire();
+        ApiFuture<SynthesizeSpeechResponse> call;
+        try {
+            call = lease.client().synthesizeSpeechCallable().futureCall(request);
+        } catch (RuntimeException e) {
+            // No callback will run, so give the channel back here; the primary keeps racing alone
+            lease.close();
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        ApiFutures.addCallback(call, new ApiFutureCallback<>() {
+            @Override
+            public void onSuccess(SynthesizeSpeechResponse response) {
+                lease.close();
+                result.complete(response.getAudioContent().toByteArray());
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                lease.close();
+                result.completeExceptionally(t);
+            }
+        }, MoreExecutors.directExecutor());
+        result.whenComplete((audio, err) -> {
+            if (result.isCancelled()) call.cancel(true);
+        });
+        return result;
+    }
+
+    private SynthesizeSpeechResponse synthesizeGrpc(SynthesisInput input, VoiceSelectionParams voice, AudioConfig audioConfig) {
+        try (GrpcClientPool<TextToSpeechClient>.Lease lease = textToSpeechClients.acquire()) {
+            return lease.client().synthesizeSpeech(input, voice, audioConfig);
+        }
+    }
+
+    /**
+     * Opens the keep-alive HTTPS connection used by the REST synthesis path with a free
+     * voice listing call, so the first premium-voice request skips DNS and TLS setup.
+     */
+    public void warmUpRest() throws IOException {
+        restTemplate.exchange("https://texttospeech.googleapis.com/v1/voices?languageCode=en-US",
+                HttpMethod.GET, new HttpEntity<>(restHeaders()), String.class);
+    }
+
+    private HttpHeaders restHeaders() throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(accessToken());
+        if (projectId != null) {
+            headers.set("x-goog-user-project", projectId);
+        }
+        return headers;
+    }
+
+    /** The shared token is refreshed in the background; only refresh inline if that hasn't kept up. */
+    private String accessToken() throws IOException {
+        AccessToken token = credentials.getAccessToken();
+        if (token == null || token.getExpirationTime() == null
+                || token.getExpirationTime().getTime() - System.currentTimeMillis() < TOKEN_MIN_VALIDITY_MS) {
+            credentials.refreshIfExpired();
+            token = credentials.getAccessToken();
+        }
+        return token.getTokenValue();
+    }
+
+    /** Gemini and Chirp voices are synthesized through the REST API and cost more than Standard voices. */
+    public static boolean isPremiumVoice(String voiceModel) {
+        return voiceModel != null && (voiceModel.startsWith("gemini") || voiceModel.toLowerCase().contains("chirp"));
+    }
+
+    private byte[] generateWithGeminiREST(String text, String languageCode, String voiceModel, String speakerAlias, String prompt) throws IOException {
         Map<String, Object> body = new HashMap<>();
         
         Map<String, String> input = new HashMap<>();
@@ -140,7 +314,7 @@ public class TextToSpeechService {
         
         // Chirp-3-HD requires different voice name formats than Gemini
         if (voiceModel.toLowerCase().contains("chirp")) {
-            voice.put("name", languageCode + "-journey-D");
+            voice.put("name", StreamingSynthesisService.journeyVoice(languageCode, speakerAlias));
         } else {
             voice.put("model_name", voiceModel);
             voice.put("name", (speakerAlias == null || speakerAlias.trim().isEmpty() || speakerAlias.equals("NEUTRAL")) ? "Kore" : speakerAlias);
@@ -152,13 +326,8 @@ public class TextToSpeechService {
         audioConfig.put("audioEncoding", "MP3");
         body.put("audioConfig", audioConfig);
 
-        HttpHeaders headers = new HttpHeaders();
+        HttpHeaders headers = restHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(token);
-        if (projectId != null) {
-            headers.set("x-goog-user-project", projectId);
-        }
-
         HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
 
         String url = "https://texttospeech.googleapis.com/v1/text:synthesize";
@@ -167,6 +336,10 @@ public class TextToSpeechService {
         long backoffDelay = 1000;
 
         for (int attempt = 1; attempt <= maxRetries; attempt++) {
+            // A hedge that won cancels this call by interrupting it; stop retrying
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IOException("Gemini TTS call cancelled");
+            }
             try {
                 if (attempt == 1) {
                     System.out.println("Calling Gemini TTS REST API for model: " + voiceModel + " speaker: " + voice.get("name") + " project: " + projectId);
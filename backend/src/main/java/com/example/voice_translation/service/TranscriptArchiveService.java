@@ -0,0 +1,129 @@
+package com.example.voice_translation.service;
+
+import com.example.voice_translation.dto.ArchivePage;
+import com.example.voice_translation.model.TranscriptArchiveEntity;
+import com.example.voice_translation.repository.TranscriptArchiveRepository;
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compliance archive of final transcripts and their translations. Entries are
+ * queued in memory and inserted into MongoDB in bulk, so the realtime path
+ * never waits on the database.
+ */
+@Service
+public class TranscriptArchiveService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final boolean enabled;
+    private final TranscriptArchiveRepository repository;
+    private final MongoTemplate mongoTemplate;
+    private final WriteBehindBuffer<TranscriptArchiveEntity> writer;
+
+    public TranscriptArchiveService(TranscriptArchiveRepository repository, MongoTemplate mongoTemplate,
+                                    @Value("${archive.enabled:true}") boolean enabled,
+                                    @Value("${archive.batch-size:500}") int batchSize,
+                                    @Value("${archive.flush-interval-ms:1000}") long flushIntervalMs,
+                                    @Value("${archive.max-pending:50000}") int maxPending,
+                                    @Value("${archive.overflow-policy:DROP_OLDEST}") WriteBehindBuffer.OverflowPolicy overflowPolicy,
+                                    @Value("${archive.max-attempts:8}") int maxAttempts,
+                                    @Value("${archive.retry-backoff-ms:500}") long retryBackoffMs,
+                                    MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.writer = new WriteBehindBuffer<>("transcript-archive", batchSize, flushIntervalMs, maxPending, overflowPolicy,
+                maxAttempts, retryBackoffMs, batch -> insertAll(mongoTemplate, batch));
+        FunctionCounter.builder("archive.entries.dropped", writer, WriteBehindBuffer::dropped)
+                .description("Archive entries dropped because the write-behind queue was full").register(meterRegistry);
+        FunctionCounter.builder("archive.entries.failed", writer, WriteBehindBuffer::failed)
+                .description("Archive entries given up on after repeated insert failures").register(meterRegistry);
+        Gauge.builder("archive.entries.pending", writer, WriteBehindBuffer::pending).register(meterRegistry);
+    }
+
+    /**
+     * Creates the index behind cursor paging, since auto index creation is off. Idempotent,
+     * so it runs on every start; without it each page scans the whole collection.
+     */
+    @PostConstruct
+    public void ensureIndexes() {
+        try {
+            mongoTemplate.indexOps(TranscriptArchiveEntity.class).ensureIndex(new Index()
+                    .on("room_id", Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC)
+                    .named("room_order"));
+        } catch (RuntimeException e) {
+            System.err.println("Could not create transcript archive index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Unordered bulk insert, so one bad document doesn't stop the rest of the batch. Ids are
+     * assigned up front, so a duplicate key means an earlier attempt already stored the entry.
+     */
+    private static void insertAll(MongoTemplate mongoTemplate, List<TranscriptArchiveEntity> batch) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TranscriptArchiveEntity.class);
+        ops.insert(batch);
+        try {
+            ops.execute();
+        } catch (BulkOperationException e) {
+            List<TranscriptArchiveEntity> retry = new ArrayList<>();
+            for (BulkWriteError error : e.getErrors()) {
+                if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                    retry.add(batch.get(error.getIndex()));
+                }
+            }
+            if (!retry.isEmpty()) throw new WriteBehindBuffer.PartialWriteException(retry, e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        writer.close();
+    }
+
+    /** Starts an archive entry for a final transcript. Translations can be added until it is committed. */
+    public TranscriptArchiveEntity begin(String roomId, String speakerSession, String sourceLang, String transcript) {
+        return new TranscriptArchiveEntity(roomId, speakerSession, sourceLang, transcript);
+    }
+
+    public void addTranslation(TranscriptArchiveEntity entry, String targetLang, String translatedText) {
+        entry.getTranslations().putIfAbsent(targetLang, translatedText);
+    }
+
+    /** Queues the entry for the next bulk insert. Never blocks. */
+    public void commit(TranscriptArchiveEntity entry) {
+        if (enabled) writer.offer(entry);
+    }
+
+    /**
+     * Returns the room's archive in speech order, starting after the given cursor.
+     * The returned cursor is null once the end of the archive has been reached.
+     */
+    public ArchivePage page(String roomId, String cursor, int limit) {
+        PageRequest pageRequest = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        List<TranscriptArchiveEntity> items = (cursor == null || cursor.isEmpty())
+                ? repository.findByRoomIdOrderByIdAsc(roomId, pageRequest)
+                : repository.findByRoomIdAndIdGreaterThanOrderByIdAsc(roomId, cursor, pageRequest);
+
+        String nextCursor = items.size() < pageRequest.getPageSize() ? null : items.get(items.size() - 1).getId();
+        return new ArchivePage(items, nextCursor);
+    }
+}
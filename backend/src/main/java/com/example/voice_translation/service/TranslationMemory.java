@@ -0,0 +1,154 @@
+package com.example.voice_translation.service;
+
+import com.example.voice_translation.model.TranslationMemoryEntity;
+import com.example.voice_translation.repository.TranslationMemoryRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent (source text, source lang, target lang) -> translation store shared
+ * across restarts and nodes. Lookups go to a local map first, then MongoDB; new
+ * entries are written behind in bulk upserts.
+ *
+ * Keys are case-sensitive ("Turkey" and "turkey" translate differently); only
+ * Unicode normalization and whitespace are folded. Database lookups run on a small
+ * pool with a short timeout, so an unreachable MongoDB costs a realtime translation
+ * at most {@code lookup-timeout-ms} before the backoff takes over.
+ */
+@Component
+public class TranslationMemory {
+
+    private static final long DB_BACKOFF_MS = 30_000;
+
+    private final boolean enabled;
+    private final TranslationMemoryRepository repository;
+    private final MongoTemplate mongoTemplate;
+    private final WriteBehindBuffer<TranslationMemoryEntity> writer;
+    private final Map<String, String> localCache = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor lookupExecutor;
+    private final long lookupTimeoutMs;
+    private volatile long dbUnavailableUntil;
+
+    public TranslationMemory(TranslationMemoryRepository repository, MongoTemplate mongoTemplate,
+                             @Value("${translation.memory.enabled:true}") boolean enabled,
+                             @Value("${translation.memory.batch-size:200}") int batchSize,
+                             @Value("${translation.memory.flush-interval-ms:2000}") long flushIntervalMs,
+                             @Value("${translation.memory.lookup-timeout-ms:150}") long lookupTimeoutMs,
+                             @Value("${translation.memory.lookup-threads:8}") int lookupThreads) {
+        this.repository = repository;
+        this.lookupTimeoutMs = lookupTimeoutMs;
+        // Lookups that can't start right away are skipped; the caller just translates
+        this.lookupExecutor = new ThreadPoolExecutor(lookupThreads, lookupThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(lookupThreads * 4), r -> {
+                    Thread t = new Thread(r, "translation-memory-lookup");
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.writer = new WriteBehindBuffer<>("translation-memory", batchSize, flushIntervalMs, batchSize * 50, this::upsertAll);
+    }
+
+    @PreDestroy
+    public void close() {
+        lookupExecutor.shutdownNow();
+        writer.close();
+    }
+
+    /** Returns the remembered translation, or null if this text has not been translated before. */
+    public String lookup(String sourceText, String sourceLang, String targetLang) {
+        if (!enabled) return null;
+        String id = id(normalize(sourceText), sourceLang, targetLang);
+        String translated = localCache.get(id);
+        if (translated != null || System.currentTimeMillis() < dbUnavailableUntil) {
+            return translated;
+        }
+
+        Future<String> lookup;
+        try {
+            lookup = lookupExecutor.submit(() ->
+                    repository.findById(id).map(TranslationMemoryEntity::getTranslatedText).orElse(null));
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+        try {
+            translated = lookup.get(lookupTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            lookup.cancel(true);
+            return null;
+        } catch (Exception e) {
+            // Don't let every utterance wait on an unreachable database
+            lookup.cancel(true);
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            System.err.println("Translation memory lookup failed, bypassing DB for " + DB_BACKOFF_MS + "ms: " + cause);
+            dbUnavailableUntil = System.currentTimeMillis() + DB_BACKOFF_MS;
+            return null;
+        }
+        if (translated != null) remember(id, translated);
+        return translated;
+    }
+
+    public void record(String sourceText, String sourceLang, String targetLang, String translatedText) {
+        if (!enabled) return;
+        String normalized = normalize(sourceText);
+        String id = id(normalized, sourceLang, targetLang);
+        remember(id, translatedText);
+        writer.offer(new TranslationMemoryEntity(id, normalized, sourceLang, targetLang, translatedText));
+    }
+
+    static String normalize(String text) {
+        String nfc = Normalizer.normalize(text, Normalizer.Form.NFC);
+        return nfc.trim().replaceAll("\\s+", " ");
+    }
+
+    private void remember(String id, String translatedText) {
+        localCache.put(id, translatedText);
+        if (localCache.size() > 10000) localCache.clear();
+    }
+
+    private void upsertAll(List<TranslationMemoryEntity> batch) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TranslationMemoryEntity.class);
+        for (TranslationMemoryEntity entry : batch) {
+            Update update = new Update()
+                    .set("source_text", entry.getSourceText())
+                    .set("source_lang", entry.getSourceLang())
+                    .set("target_lang", entry.getTargetLang())
+                    .set("translated_text", entry.getTranslatedText())
+                    .setOnInsert("created_at", entry.getCreatedAt());
+            ops.upsert(Query.query(Criteria.where("_id").is(entry.getId())), update);
+        }
+        ops.execute();
+    }
+
+    private static String id(String normalizedText, String sourceLang, String targetLang) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update((sourceLang + "|" + targetLang + "|" + normalizedText).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(sha.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
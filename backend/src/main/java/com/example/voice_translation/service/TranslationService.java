@@ -1,5 +1,6 @@
 package com.example.voice_translation.service;
 
+import com.example.voice_translation.monitoring.TranslationCallEvent;
 import com.google.cloud.translate.Translate;
 import com.google.cloud.translate.TranslateOptions;
 import com.google.cloud.translate.Translation;
@@ -8,10 +9,14 @@ import org.springframework.stereotype.Service;
 @Service
 public class TranslationService {
 
+    private static final String AUTO_DETECT = "auto";
+
     private final Translate translate;
+    private final TranslationMemory translationMemory;
 
-    public TranslationService(Translate translate) {
+    public TranslationService(Translate translate, TranslationMemory translationMemory) {
         this.translate = translate;
+        this.translationMemory = translationMemory;
     }
 
     /**
@@ -22,10 +27,39 @@ public class TranslationService {
      * @return The translated text.
      */
     public String translateText(String originalText, String targetLanguageCode) {
-        Translation translation = translate.translate(
-                originalText,
-                Translate.TranslateOption.targetLanguage(targetLanguageCode));
+        return translateText(originalText, AUTO_DETECT, targetLanguageCode);
+    }
+
+    /**
+     * Translates the given text, consulting the translation memory before calling the API.
+     *
+     * @param originalText       The text to translate.
+     * @param sourceLanguageCode The language the text was spoken in, used as part of the memory key.
+     * @param targetLanguageCode The target language code (e.g., "es").
+     * @return The translated text.
+     */
+    public String translateText(String originalText, String sourceLanguageCode, String targetLanguageCode) {
+        TranslationCallEvent event = new TranslationCallEvent();
+        event.begin();
+        try {
+            String remembered = translationMemory.lookup(originalText, sourceLanguageCode, targetLanguageCode);
+            if (remembered != null) {
+                event.memoryHit = true;
+                return remembered;
+            }
+
+            Translation translation = translate.translate(
+                    originalText,
+                    Translate.TranslateOption.targetLanguage(targetLanguageCode));
 
-        return translation.getTranslatedText();
+            String translatedText = translation.getTranslatedText();
+            translationMemory.record(originalText, sourceLanguageCode, targetLanguageCode, translatedText);
+            return translatedText;
+        } finally {
+            event.sourceLanguage = sourceLanguageCode;
+            event.targetLanguage = targetLanguageCode;
+            event.characters = originalText.length();
+            event.commit();
+        }
     }
 }
@@ -0,0 +1,158 @@
+package com.example.voice_translation.service;
+
+import com.example.voice_translation.config.CredentialsRefresher;
+import com.example.voice_translation.config.GoogleCloudConfig;
+import com.example.voice_translation.config.GrpcClientPool;
+import com.google.cloud.speech.v2.ListRecognizersRequest;
+import com.google.cloud.speech.v2.LocationName;
+import com.google.cloud.speech.v2.SpeechClient;
+import com.google.cloud.texttospeech.v1.ListVoicesRequest;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.texttospeech.v1.TextToSpeechClient;
+import com.google.cloud.translate.Translate;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Gets a fresh pod to steady-state latency before it reports ready. Runs as an
+ * ApplicationRunner, and Spring Boot only marks the readiness probe as accepting
+ * traffic once every runner has returned.
+ *
+ * Fetches the shared access token, opens every pooled gRPC channel and the REST
+ * and MongoDB connections, then optionally pre-synthesizes common phrases so they
+ * are served from cache. Failures are logged and never block startup.
+ */
+@Component
+public class WarmUpService implements ApplicationRunner {
+
+    private final CredentialsRefresher credentialsRefresher;
+    private final SttRegionSelector sttRegions;
+    private final GrpcClientPool<TextToSpeechClient> textToSpeechClients;
+    private final Translate translate;
+    private final MongoTemplate mongoTemplate;
+    private final TranslationService translationService;
+    private final TextToSpeechService textToSpeechService;
+    private final String projectId;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.timeout-seconds:60}")
+    private long timeoutSeconds;
+
+    @Value("${warmup.parallelism:8}")
+    private int parallelism;
+
+    @Value("${warmup.source-lang:en-US}")
+    private String sourceLang;
+
+    @Value("${warmup.languages:}")
+    private List<String> languages;
+
+    @Value("${warmup.phrases:}")
+    private List<String> phrases;
+
+    @Value("${warmup.voice:Standard}")
+    private String voiceModel;
+
+    public WarmUpService(CredentialsRefresher credentialsRefresher, SttRegionSelector sttRegions,
+                         GrpcClientPool<TextToSpeechClient> textToSpeechClients, Translate translate,
+                         MongoTemplate mongoTemplate, TranslationService translationService,
+                         TextToSpeechService textToSpeechService, GoogleCredentials credentials,
+                         @Value("${stt.project-id:}") String projectId) {
+        this.credentialsRefresher = credentialsRefresher;
+        this.sttRegions = sttRegions;
+        this.textToSpeechClients = textToSpeechClients;
+        this.translate = translate;
+        this.mongoTemplate = mongoTemplate;
+        this.translationService = translationService;
+        this.textToSpeechService = textToSpeechService;
+        this.projectId = GoogleCloudConfig.projectId(projectId, credentials);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        try {
+            // Everything else authenticates with this token, so fetch it first
+            step("credentials", credentialsRefresher::refresh);
+
+            List<CompletableFuture<Void>> steps = new ArrayList<>();
+            for (SttRegion region : sttRegions.regions()) {
+                List<SpeechClient> clients = region.clients().clients();
+                for (int i = 0; i < clients.size(); i++) {
+                    SpeechClient client = clients.get(i);
+                    steps.add(async(executor, "stt " + region.location() + " channel " + i, () -> client.listRecognizersCallable()
+                            .call(ListRecognizersRequest.newBuilder()
+                                    .setParent(LocationName.of(projectId, region.location()).toString())
+                                    .setPageSize(1)
+                                    .build())));
+                }
+            }
+            List<TextToSpeechClient> ttsClients = textToSpeechClients.clients();
+            for (int i = 0; i < ttsClients.size(); i++) {
+                TextToSpeechClient client = ttsClients.get(i);
+                steps.add(async(executor, "tts channel " + i, () -> client.listVoicesCallable()
+                        .call(ListVoicesRequest.newBuilder().setLanguageCode("en-US").build())));
+            }
+            steps.add(async(executor, "tts rest", textToSpeechService::warmUpRest));
+            steps.add(async(executor, "translate", () -> translate.listSupportedLanguages()));
+            steps.add(async(executor, "mongodb", () -> mongoTemplate.executeCommand(new Document("ping", 1))));
+            for (String language : languages) {
+                if (language.isBlank()) continue;
+                steps.add(async(executor, "phrases " + language.trim(), () -> preSynthesize(language.trim())));
+            }
+
+            CompletableFuture.allOf(steps.toArray(new CompletableFuture[0])).get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            System.err.println("Warm-up did not finish within " + timeoutSeconds + "s, continuing startup");
+        } catch (Exception e) {
+            System.err.println("Warm-up interrupted: " + e.getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+        System.out.println("Warm-up finished in " + (System.nanoTime() - start) / 1_000_000 + "ms");
+    }
+
+    /** Translates and synthesizes each configured phrase, leaving the results in both caches. */
+    private void preSynthesize(String language) throws Exception {
+        for (String phrase : phrases) {
+            if (phrase.isBlank()) continue;
+            String translated = translationService.translateText(phrase.trim(), sourceLang, language);
+            textToSpeechService.synthesize(translated, language, voiceModel, "NEUTRAL", "");
+        }
+    }
+
+    private interface Step {
+        void run() throws Exception;
+    }
+
+    private static CompletableFuture<Void> async(ExecutorService executor, String name, Step step) {
+        return CompletableFuture.runAsync(() -> step(name, step), executor);
+    }
+
+    private static void step(String name, Step step) {
+        long start = System.nanoTime();
+        try {
+            step.run();
+            System.out.println("Warm-up " + name + " ready in " + (System.nanoTime() - start) / 1_000_000 + "ms");
+        } catch (Exception e) {
+            // A rejected call still leaves the connection open, which is the point
+            System.err.println("Warm-up " + name + " failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.voice_translation.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Lock-free queue that hands items to a sink in batches, either when a batch
+ * fills up or when the flush interval elapses. Producers never block: once
+ * {@code maxPending} items are queued, the overflow policy decides which item is dropped.
+ *
+ * A batch the sink fails is retried with exponential backoff, up to {@code maxAttempts}
+ * writes in all. Later items stay queued meanwhile, so order is kept. A sink that wrote
+ * part of a batch throws {@link PartialWriteException} with the items still to retry.
+ */
+public class WriteBehindBuffer<T> {
+
+    public enum OverflowPolicy {
+        /** Keep what is queued and reject the new item. */
+        DROP_NEWEST,
+        /** Evict the oldest queued item to make room for the new one. */
+        DROP_OLDEST
+    }
+
+    /** Thrown by a sink that wrote some of a batch; only {@link #remaining()} is retried. */
+    public static class PartialWriteException extends RuntimeException {
+        private final List<?> remaining;
+
+        public PartialWriteException(List<?> remaining, String message, Throwable cause) {
+            super(message, cause);
+            this.remaining = List.copyOf(remaining);
+        }
+
+        public List<?> remaining() {
+            return remaining;
+        }
+    }
+
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final String name;
+    private final int batchSize;
+    private final int maxPending;
+    private final OverflowPolicy overflowPolicy;
+    private final Consumer<List<T>> sink;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+
+    private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicInteger dropped = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final ScheduledExecutorService scheduler;
+
+    // Only touched under the flush lock
+    private List<T> retryBatch;
+    private int attempts;
+    private long nextAttemptAt;
+
+    public WriteBehindBuffer(String name, int batchSize, long flushIntervalMs, int maxPending, Consumer<List<T>> sink) {
+        this(name, batchSize, flushIntervalMs, maxPending, OverflowPolicy.DROP_NEWEST, sink);
+    }
+
+    public WriteBehindBuffer(String name, int batchSize, long flushIntervalMs, int maxPending,
+                             OverflowPolicy overflowPolicy, Consumer<List<T>> sink) {
+        this(name, batchSize, flushIntervalMs, maxPending, overflowPolicy, 1, 0, sink);
+    }
+
+    public WriteBehindBuffer(String name, int batchSize, long flushIntervalMs, int maxPending,
+                             OverflowPolicy overflowPolicy, int maxAttempts, long retryBackoffMs, Consumer<List<T>> sink) {
+        this.name = name;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.overflowPolicy = overflowPolicy;
+        this.sink = sink;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, name + "-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Queues an item for the next batch. Returns false if the new item itself was dropped. */
+    public boolean offer(T item) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            reportDrop();
+            if (overflowPolicy == OverflowPolicy.DROP_NEWEST) return false;
+            if (queue.poll() != null) pending.decrementAndGet();
+            pending.incrementAndGet();
+        }
+        queue.add(item);
+        if (pending.get() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            scheduler.execute(this::flush);
+        }
+        return true;
+    }
+
+    public int pending() {
+        return pending.get();
+    }
+
+    /** Items rejected because the queue was full. */
+    public int dropped() {
+        return dropped.get();
+    }
+
+    /** Items given up on after {@code maxAttempts} failed writes. */
+    public int failed() {
+        return failed.get();
+    }
+
+    /**
+     * Drains the queue into the sink, one batch at a time. Runs on the writer thread.
+     * Stops at a failed batch, which is retried first on a later flush once its backoff has passed.
+     */
+    public void flush() {
+        flush(false);
+    }
+
+    private synchronized void flush(boolean force) {
+        flushScheduled.set(false);
+        if (retryBatch != null) {
+            if (!force && System.currentTimeMillis() < nextAttemptAt) return;
+            List<T> batch = retryBatch;
+            retryBatch = null;
+            if (!write(batch)) return;
+        }
+        List<T> batch = new ArrayList<>(batchSize);
+        T item;
+        while ((item = queue.poll()) != null) {
+            pending.decrementAndGet();
+            batch.add(item);
+            if (batch.size() == batchSize) {
+                if (!write(batch)) return;
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) write(batch);
+    }
+
+    /** Flushes whatever is still queued and stops the writer thread. */
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush(true);
+    }
+
+    private void reportDrop() {
+        if (dropped.incrementAndGet() % 1000 == 1) {
+            System.err.println(name + " write-behind buffer full, dropping items (" + dropped.get() + " so far)");
+        }
+    }
+
+    /** Returns false if the batch (or what is left of it) is waiting to be retried. */
+    @SuppressWarnings("unchecked")
+    private boolean write(List<T> batch) {
+        List<T> remaining;
+        String error;
+        try {
+            sink.accept(batch);
+            attempts = 0;
+            return true;
+        } catch (PartialWriteException e) {
+            remaining = (List<T>) e.remaining();
+            error = e.getMessage();
+        } catch (Exception e) {
+            remaining = batch;
+            error = e.getMessage();
+        }
+        if (remaining.isEmpty()) {
+            attempts = 0;
+            return true;
+        }
+
+        attempts++;
+        if (attempts >= maxAttempts) {
+            failed.addAndGet(remaining.size());
+            System.err.println(name + " batch write failed " + attempts + " times, giving up on "
+                    + remaining.size() + " items: " + error);
+            attempts = 0;
+            return true;
+        }
+        long backoff = Math.min(MAX_BACKOFF_MS, retryBackoffMs << Math.min(attempts - 1, 20));
+        System.err.println(name + " batch write failed (" + remaining.size() + " items), retrying in "
+                + backoff + "ms: " + error);
+        retryBatch = remaining;
+        nextAttemptAt = System.currentTimeMillis() + backoff;
+        return false;
+    }
+}
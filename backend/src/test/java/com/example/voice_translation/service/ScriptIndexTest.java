@@ -0,0 +1,85 @@
+package com.example.voice_translation.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScriptIndexTest {
+
+    private static final double THRESHOLD = 0.7;
+
+    private final ScriptIndex index = new ScriptIndex(List.of(
+            "Good morning everyone and welcome to the annual developer conference.",
+            "Today we are going to talk about realtime translation at scale.",
+            "Let us start with a short demo of the new streaming pipeline."), 2);
+
+    @Test
+    void exactSentenceMatchesWithFullScore() {
+        ScriptIndex.Match match = index.best("good morning everyone and welcome to the annual developer conference", 0, 0);
+
+        assertNotNull(match);
+        assertEquals(0, match.sentence());
+        assertEquals(1.0, match.score(), 1e-9);
+    }
+
+    @Test
+    void oneMisrecognizedWordStillMatches() {
+        ScriptIndex.Match match = index.best("Today we are going to walk about realtime translation at scale", 0, 0);
+
+        assertNotNull(match);
+        assertEquals(1, match.sentence());
+        assertTrue(match.score() >= THRESHOLD, "score " + match.score());
+    }
+
+    @Test
+    void halfASentenceStaysBelowThreshold() {
+        ScriptIndex.Match match = index.best("Today we are going to talk", 0, 0);
+
+        assertNotNull(match);
+        assertEquals(1, match.sentence());
+        assertTrue(match.score() < THRESHOLD, "score " + match.score());
+    }
+
+    @Test
+    void transcriptSpanningTwoSentencesStaysBelowThreshold() {
+        ScriptIndex.Match match = index.best("Good morning everyone and welcome to the annual developer conference. "
+                + "Today we are going to talk about realtime translation at scale.", 0, 0);
+
+        assertNotNull(match);
+        assertTrue(match.score() < THRESHOLD, "score " + match.score());
+    }
+
+    @Test
+    void offScriptTranscriptHasNoMatch() {
+        assertNull(index.best("Can everyone at the back hear me", 0, 0));
+    }
+
+    @Test
+    void expectedNextSentenceGetsSequenceBonus() {
+        ScriptIndex.Match match = index.best("let us start with a short demo of the new streaming pipeline", 2, 0.1);
+
+        assertNotNull(match);
+        assertEquals(2, match.sentence());
+        assertEquals(1.1, match.score(), 1e-9);
+    }
+
+    @Test
+    void tokensIgnoreCasePunctuationAndApostrophes() {
+        assertEquals(List.of("were", "here", "today"), ScriptIndex.tokens("We're HERE, today!"));
+    }
+
+    @Test
+    void unspacedScriptsAreTokenizedPerCharacter() {
+        assertEquals(List.of("今", "日", "は"), ScriptIndex.tokens("今日は。"));
+    }
+
+    @Test
+    void combiningMarksStayInsideTheirWord() {
+        assertEquals(List.of("नमस्ते", "दोस्तों"), ScriptIndex.tokens("नमस्ते दोस्तों"));
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.voice_translation.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SttRegionSelectorTest {
+
+    private static SttRegion region(String location) {
+        return new SttRegion(location, location + "-speech.googleapis.com:443", null);
+    }
+
+    @Test
+    void picksLowestProbeRtt() {
+        SttRegion mumbai = region("asia-south1");
+        SttRegion singapore = region("asia-southeast1");
+        mumbai.recordRtt(90);
+        singapore.recordRtt(40);
+
+        assertSame(singapore, new SttRegionSelector(List.of(mumbai, singapore), 0).select());
+    }
+
+    @Test
+    void errorsOutweighASmallRttLead() {
+        SttRegion mumbai = region("asia-south1");
+        SttRegion singapore = region("asia-southeast1");
+        mumbai.recordRtt(40);
+        singapore.recordRtt(60);
+        for (int i = 0; i < 3; i++) mumbai.recordError();
+
+        assertSame(singapore, new SttRegionSelector(List.of(mumbai, singapore), 0).select());
+    }
+
+    @Test
+    void recoveredRegionWinsBackAfterSuccesses() {
+        SttRegion mumbai = region("asia-south1");
+        SttRegion singapore = region("asia-southeast1");
+        mumbai.recordRtt(40);
+        singapore.recordRtt(60);
+        mumbai.recordError();
+        for (int i = 0; i < 20; i++) mumbai.recordSuccess();
+
+        assertSame(mumbai, new SttRegionSelector(List.of(mumbai, singapore), 0).select());
+    }
+
+    @Test
+    void measuredRegionIsPreferredOverUnmeasured() {
+        SttRegion unmeasured = region("asia-south1");
+        SttRegion measured = region("asia-southeast1");
+        measured.recordRtt(250);
+
+        assertSame(measured, new SttRegionSelector(List.of(unmeasured, measured), 0).select());
+    }
+
+    @Test
+    void streamLatencyMeasuresRegionsWithoutProbes() {
+        SttRegion mumbai = region("asia-south1");
+        SttRegion singapore = region("asia-southeast1");
+        mumbai.recordLatency(600);
+        singapore.recordLatency(300);
+
+        assertTrue(mumbai.measured());
+        assertSame(singapore, new SttRegionSelector(List.of(mumbai, singapore), 0).select());
+    }
+
+    @Test
+    void withoutProbesHealthyFirstListedRegionWins() {
+        SttRegion mumbai = region("asia-south1");
+        SttRegion singapore = region("asia-southeast1");
+
+        SttRegionSelector selector = new SttRegionSelector(List.of(mumbai, singapore), 0);
+        assertSame(mumbai, selector.select());
+
+        mumbai.recordError();
+        assertSame(singapore, selector.select());
+    }
+
+    @Test
+    void firstProbeSampleReplacesEmptyEstimate() {
+        SttRegion mumbai = region("asia-south1");
+        assertFalse(mumbai.measured());
+
+        mumbai.recordRtt(35);
+        assertTrue(mumbai.measured());
+        assertEquals(35.0, mumbai.rttMs(), 1e-9);
+
+        mumbai.recordRtt(45);
+        assertEquals(37.0, mumbai.rttMs(), 1e-9);
+    }
+
+    @Test
+    void explorationSometimesSelectsTheSlowerRegion() {
+        SttRegion mumbai = region("asia-south1");
+        SttRegion singapore = region("asia-southeast1");
+        mumbai.recordRtt(40);
+        singapore.recordRtt(60);
+
+        SttRegionSelector selector = new SttRegionSelector(List.of(mumbai, singapore), 1.0);
+        boolean explored = false;
+        for (int i = 0; i < 200 && !explored; i++) {
+            explored = selector.select() == singapore;
+        }
+        assertTrue(explored);
+    }
+
+    @Test
+    void probeMeasuresReachableAndPenalizesUnreachableEndpoints() throws IOException {
+        int closedPort;
+        try (ServerSocket closed = new ServerSocket(0)) {
+            closedPort = closed.getLocalPort();
+        }
+        try (ServerSocket server = new ServerSocket(0)) {
+            SttRegion reachable = new SttRegion("local", "plaintext://127.0.0.1:" + server.getLocalPort(), null);
+            SttRegion unreachable = new SttRegion("gone", "127.0.0.1:" + closedPort, null);
+
+            new SttRegionSelector(List.of(reachable, unreachable), 0).probeAll();
+
+            assertTrue(reachable.measured());
+            assertEquals(0.0, reachable.errorRate(), 1e-9);
+            assertFalse(unreachable.measured());
+            assertTrue(unreachable.errorRate() > 0);
+        }
+    }
+
+    @Test
+    void requiresAtLeastOneRegion() {
+        assertThrows(IllegalArgumentException.class, () -> new SttRegionSelector(List.of(), 0));
+    }
+}